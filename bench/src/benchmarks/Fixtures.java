@@ -0,0 +1,136 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Date;
+import model.Event;
+import model.NUPlanner;
+import model.User;
+
+/**
+ * Builds the users, schedules and events the benchmarks run against. Every schedule has the
+ * same layout: the week is split into equal slots, one per event, and each event takes up the
+ * first half of its slot. The second half of every slot is free in every schedule, so an
+ * event placed there (see freeEvent()) never conflicts with anyone.
+ */
+final class Fixtures {
+  private Fixtures() {
+  }
+
+  /**
+   * Retrieves the number of minutes in each slot of a schedule with the given number of events.
+   */
+  static int slotLength(int eventsPerUser) {
+    return Date.MINUTES_IN_WEEK / eventsPerUser;
+  }
+
+  /**
+   * Retrieves the id of the user at the given position.
+   */
+  static String userId(int user) {
+    return "user" + user;
+  }
+
+  /**
+   * Builds a schedule of the given number of events for a single user, who hosts all of them.
+   */
+  static User user(String userId, int eventsPerUser) {
+    User user = new User(userId);
+    int slotLength = slotLength(eventsPerUser);
+
+    for (int event = 0; event < eventsPerUser; event++) {
+      int start = event * slotLength;
+      user.addEvent(new Event(userId + " event " + event, "Snell Library", false,
+              Date.ofMinuteOfWeek(start), Date.ofMinuteOfWeek(start + slotLength / 2),
+              new ArrayList<>(List.of(userId))));
+    }
+
+    return user;
+  }
+
+  /**
+   * Builds a planner of the given number of users, each with their own schedule.
+   */
+  static NUPlanner planner(int users, int eventsPerUser) {
+    List<User> built = new ArrayList<>(users);
+
+    for (int user = 0; user < users; user++) {
+      built.add(user(userId(user), eventsPerUser));
+    }
+
+    return new NUPlanner(built);
+  }
+
+  /**
+   * Builds an event in the free half of the given slot, hosted by the first of the given
+   * users and inviting the rest.
+   */
+  static Event freeEvent(String name, int eventsPerUser, int slot, List<String> invitees) {
+    int slotLength = slotLength(eventsPerUser);
+    int start = slot * slotLength + slotLength / 2;
+    int length = Math.max(1, Math.min(30, slotLength / 2 - 1));
+
+    return new Event(name, "Curry Student Center", false,
+            Date.ofMinuteOfWeek(start), Date.ofMinuteOfWeek(start + length),
+            new ArrayList<>(invitees));
+  }
+
+  /**
+   * Builds the ids of the first given number of users.
+   */
+  static List<String> userIds(int count) {
+    List<String> userIds = new ArrayList<>(count);
+
+    for (int user = 0; user < count; user++) {
+      userIds.add(userId(user));
+    }
+
+    return userIds;
+  }
+
+  /**
+   * Writes an XML file holding a schedule of the given number of one minute long events, in
+   * the same format FileHelper writes. The events go round and round the week, so a file of
+   * more than a week's worth of minutes has events that overlap. That is fine for reading the
+   * file, but such a file cannot be uploaded.
+   */
+  static void writeScheduleXML(Path file, String userId, int events) throws IOException {
+    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      out.write("<?xml version=\"1.0\"?>\n");
+      out.write("<schedule id=\"" + userId + "\">\n");
+
+      for (int event = 0; event < events; event++) {
+        Date start = Date.ofMinuteOfWeek(event % (Date.MINUTES_IN_WEEK - 1));
+        Date end = Date.ofMinuteOfWeek(start.getMinuteOfWeek() + 1);
+
+        out.write("    <event>\n");
+        out.write("        <name>Event " + event + "</name>\n");
+        out.write("        <time>\n");
+        out.write("            <start-day>" + start.getDay() + "</start-day>\n");
+        out.write("            <start>" + start.getTime() + "</start>\n");
+        out.write("            <end-day>" + end.getDay() + "</end-day>\n");
+        out.write("            <end>" + end.getTime() + "</end>\n");
+        out.write("        </time>\n");
+        out.write("        <location>\n");
+        out.write("            <online>" + (event % 2 == 0) + "</online>\n");
+        out.write("            <place>Room " + (event % 20) + "</place>\n");
+        out.write("        </location>\n");
+        out.write("        <users>\n");
+        out.write("            <uid>" + userId + "</uid>\n");
+        for (int guest = 1; guest <= 3; guest++) {
+          out.write("            <uid>guest" + guest + "</uid>\n");
+        }
+        out.write("        </users>\n");
+        out.write("    </event>\n");
+      }
+
+      out.write("</schedule>\n");
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import helpers.FileHelper;
+import model.NUPlanner;
+import model.User;
+
+/**
+ * Measures uploading a user from an XML file and saving them back to one, in operations per
+ * second. uploadXMLFile() reads and checks every event and builds the user's schedule in a
+ * new planner; toXML() renders a user's file in memory, and writeToFile() also writes it to
+ * the disk. A single user can hold at most a week's worth of one minute long events, so the
+ * largest schedule here has 10,000 events; LoaderBenchmark reads files of up to 100,000.
+ * Run with "-prof gc" and divide gc.alloc.rate.norm by the number of events to get the bytes
+ * allocated per event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportExportBenchmark {
+  @Param({"10", "100", "1000", "10000"})
+  public int events;
+
+  private File file;
+  private File savedFile;
+  private User user;
+
+  /**
+   * Writes a schedule of the given number of back-to-back, one minute long events, and
+   * uploads it once to have a user to save.
+   */
+  @Setup
+  public void writeSchedule() throws IOException {
+    this.file = File.createTempFile("import", ".xml");
+    this.savedFile = File.createTempFile("export", ".xml");
+    Fixtures.writeScheduleXML(this.file.toPath(), "host", this.events);
+
+    NUPlanner planner = new NUPlanner(false);
+    planner.uploadXMLFile(this.file.getPath());
+    this.user = planner.getUser("host");
+  }
+
+  @TearDown
+  public void deleteSchedule() {
+    this.file.delete();
+    this.savedFile.delete();
+  }
+
+  @Benchmark
+  public NUPlanner uploadXMLFile() {
+    NUPlanner planner = new NUPlanner(false);
+    planner.uploadXMLFile(this.file.getPath());
+    return planner;
+  }
+
+  @Benchmark
+  public byte[] toXML() {
+    return FileHelper.toXML(this.user);
+  }
+
+  @Benchmark
+  public File writeToFile() {
+    FileHelper.writeToFile(this.user, this.savedFile.getPath());
+    return this.savedFile;
+  }
+}
@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import helpers.EventRecord;
+import helpers.FileHelper;
+import helpers.XMLScheduleReader;
+import model.Event;
+
+/**
+ * Measures how fast a user's schedule is read from an XML file, in operations per second,
+ * for files of 10 to 100,000 events. documentTree() (FileHelper.createXMlDoc()) builds
+ * the DOM tree that the old loader turned into maps of "tag:value" strings, which is the
+ * floor of what that loader cost; records() (FileHelper.readUserScheduleFromXML()) is the
+ * streaming reader producing EventRecords, and events() goes one step further and turns
+ * every record into an Event. Run with "-prof gc" to compare the bytes allocated per
+ * operation; dividing gc.alloc.rate.norm by the number of events gives the bytes allocated
+ * per event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoaderBenchmark {
+  @Param({"10", "1000", "10000", "100000"})
+  public int events;
+
+  private File file;
+
+  /**
+   * Writes a schedule with the given number of one minute long events, each shared with a
+   * handful of invitees.
+   */
+  @Setup
+  public void writeSchedule() throws IOException {
+    this.file = File.createTempFile("loader", ".xml");
+    Fixtures.writeScheduleXML(this.file.toPath(), "host", this.events);
+  }
+
+  @TearDown
+  public void deleteSchedule() {
+    this.file.delete();
+  }
+
+  @Benchmark
+  public Object documentTree() {
+    return FileHelper.createXMlDoc(this.file.getPath());
+  }
+
+  @Benchmark
+  public List<EventRecord> records() {
+    return FileHelper.readUserScheduleFromXML(this.file.getPath());
+  }
+
+  @Benchmark
+  public List<Event> events() {
+    List<Event> read = new ArrayList<>(this.events);
+
+    try (XMLScheduleReader reader = new XMLScheduleReader(this.file.getPath())) {
+      while (reader.hasNextEvent()) {
+        read.add(reader.nextEvent());
+      }
+    }
+
+    return read;
+  }
+}
@@ -0,0 +1,159 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Date;
+import model.Event;
+import model.NUPlanner;
+
+/**
+ * Measures the planner's operations that reach across users: adding an event with a wide
+ * list of invitees, removing it again (which removes it from every invitee), modifying it,
+ * and looking up the meetings a user has at a given moment. The planner holds the given
+ * number of users, each with the given number of events of their own, and the wide event is
+ * hosted by the first user and invites the first "invitees" users (or everyone, if there are
+ * fewer users than that).
+ * addEvent() and removeEvent() each need the planner to be put back the way it was after
+ * every call, which JMH does outside of the measured time with Level.Invocation. That costs
+ * a little accuracy for operations this short, so compare them against each other rather
+ * than reading too much into their absolute numbers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PlannerBenchmark {
+  @Param({"100", "1000", "10000"})
+  public int users;
+
+  @Param({"10", "100"})
+  public int eventsPerUser;
+
+  @Param({"10", "1000"})
+  public int invitees;
+
+  private NUPlanner planner;
+  private String host;
+  private List<String> invitedUsers;
+
+  // the two versions modifyEvent() switches the modified event between, in different slots
+  private Event modifiedBefore;
+  private Event modifiedAfter;
+
+  // a user in the middle of the planner, and a moment in the middle of one of their events
+  private String busyUser;
+  private Date busyDate;
+
+  @Setup
+  public void buildPlanner() {
+    this.planner = Fixtures.planner(this.users, this.eventsPerUser);
+    this.invitedUsers = Fixtures.userIds(Math.min(this.invitees, this.users));
+    this.host = this.invitedUsers.get(0);
+
+    this.modifiedBefore = Fixtures.freeEvent("Modified", this.eventsPerUser, 1,
+            this.invitedUsers);
+    this.modifiedAfter = Fixtures.freeEvent("Modified", this.eventsPerUser, 2,
+            this.invitedUsers);
+    this.planner.addEvent(this.host, this.modifiedBefore);
+
+    int middle = this.eventsPerUser / 2;
+    this.busyUser = Fixtures.userId(this.users / 2);
+    this.busyDate = Date.ofMinuteOfWeek(middle * Fixtures.slotLength(this.eventsPerUser) + 1);
+  }
+
+  /**
+   * Builds the wide event every user invited to it has room for.
+   */
+  Event wideEvent() {
+    return Fixtures.freeEvent("Wide", this.eventsPerUser, 0, this.invitedUsers);
+  }
+
+  /**
+   * Holds the wide event, which is removed again after every call that adds it.
+   */
+  @State(Scope.Thread)
+  public static class EventToAdd {
+    private PlannerBenchmark benchmark;
+    private Event event;
+
+    @Setup
+    public void buildEvent(PlannerBenchmark benchmark) {
+      this.benchmark = benchmark;
+      this.event = benchmark.wideEvent();
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeEvent() {
+      this.benchmark.planner.removeEvent(this.benchmark.host, this.event.getName());
+    }
+  }
+
+  /**
+   * Holds the wide event, which is added again before every call that removes it.
+   */
+  @State(Scope.Thread)
+  public static class EventToRemove {
+    private PlannerBenchmark benchmark;
+    private Event event;
+
+    @Setup
+    public void buildEvent(PlannerBenchmark benchmark) {
+      this.benchmark = benchmark;
+      this.event = benchmark.wideEvent();
+    }
+
+    @Setup(Level.Invocation)
+    public void addEvent() {
+      this.benchmark.planner.addEvent(this.benchmark.host, this.event);
+    }
+  }
+
+  @Benchmark
+  public NUPlanner addEvent(EventToAdd toAdd) {
+    this.planner.addEvent(this.host, toAdd.event);
+    return this.planner;
+  }
+
+  @Benchmark
+  public NUPlanner removeEvent(EventToRemove toRemove) {
+    this.planner.removeEvent(this.host, toRemove.event.getName());
+    return this.planner;
+  }
+
+  /**
+   * Moves the modified event from one slot to the other, for the host and every invitee.
+   * Every call moves it back the way it came, and both ways cost the same.
+   */
+  @Benchmark
+  public NUPlanner modifyEvent() {
+    this.planner.modifyEvent("Modified", this.modifiedAfter);
+
+    Event swap = this.modifiedBefore;
+    this.modifiedBefore = this.modifiedAfter;
+    this.modifiedAfter = swap;
+    return this.planner;
+  }
+
+  @Benchmark
+  public ArrayList<Event> checkOccurringMeetings() {
+    return this.planner.checkOccurringMeetings(this.busyUser, this.busyDate);
+  }
+}
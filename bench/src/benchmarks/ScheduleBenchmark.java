@@ -0,0 +1,96 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Event;
+import model.Schedule;
+import model.User;
+
+/**
+ * Measures the operations on a single user's schedule. hasTimeConflict() answers from the
+ * interval tree until someone asks the schedule for its occupancy bitmap, and from the bitmap
+ * after that, so both ways are measured, for an event that conflicts and one that does not.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleBenchmark {
+  @Param({"10", "100", "1000"})
+  public int eventsPerUser;
+
+  // never asked for its occupancy, so it only ever uses its interval tree
+  private Schedule treeSchedule;
+  // asked for its occupancy up front, so it always uses its bitmap
+  private Schedule bitmapSchedule;
+  private Event conflictingEvent;
+  private Event freeEvent;
+
+  @Setup
+  public void buildSchedules() {
+    this.treeSchedule = Fixtures.user("host", this.eventsPerUser).getSchedule();
+    this.bitmapSchedule = Fixtures.user("host", this.eventsPerUser).getSchedule();
+    this.bitmapSchedule.getOccupancy();
+
+    int middle = this.eventsPerUser / 2;
+    this.freeEvent = Fixtures.freeEvent("Free", this.eventsPerUser, middle, List.of("host"));
+    // the host's own event in the middle slot, under a different name
+    Event taken = this.treeSchedule.getEvents().get(middle);
+    this.conflictingEvent = new Event("Taken", taken.getLocation(), taken.getOnline(),
+            taken.getStartDate(), taken.getEndDate(), taken.getInvitedUsers());
+  }
+
+  /**
+   * Adds an event to the schedule and removes it again, which leaves the schedule as it was
+   * for the next call.
+   */
+  @Benchmark
+  public Schedule addAndRemoveEvent() {
+    this.treeSchedule.addEvent(this.freeEvent);
+    this.treeSchedule.removeEvent(this.freeEvent.getName());
+    return this.treeSchedule;
+  }
+
+  @Benchmark
+  public boolean hasTimeConflictTreeHit() {
+    return this.treeSchedule.hasTimeConflict(this.conflictingEvent);
+  }
+
+  @Benchmark
+  public boolean hasTimeConflictTreeMiss() {
+    return this.treeSchedule.hasTimeConflict(this.freeEvent);
+  }
+
+  @Benchmark
+  public boolean hasTimeConflictBitmapHit() {
+    return this.bitmapSchedule.hasTimeConflict(this.conflictingEvent);
+  }
+
+  @Benchmark
+  public boolean hasTimeConflictBitmapMiss() {
+    return this.bitmapSchedule.hasTimeConflict(this.freeEvent);
+  }
+
+  /**
+   * Builds a whole schedule from nothing, one event at a time.
+   */
+  @Benchmark
+  public User buildSchedule() {
+    return Fixtures.user("host", this.eventsPerUser);
+  }
+}
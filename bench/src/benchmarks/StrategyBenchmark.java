@@ -0,0 +1,140 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import controller.AnytimeStrategy;
+import controller.SchedulingStrategy;
+import controller.WorkHoursStrategy;
+import model.Date;
+import model.Event;
+import model.NUPlanner;
+import model.User;
+
+/**
+ * Measures how fast each scheduling strategy finds a time for an event, for groups of 2 to
+ * 2,000 invitees, schedules of different densities, and events of different lengths. The
+ * schedules come in three layouts:
+ * "light": every user has one hour-long event a day, at an hour between 0900 and 1600 that
+ * depends on the user, so larger groups leave less of the work day free.
+ * "dense": every user is busy every hour of the week, one event per hour, except for a free
+ * hour on Friday at 1600 that everyone shares. The search has to go through the whole week
+ * to find it, and an event longer than an hour does not fit at all.
+ * "full": every user is busy every hour of the week, so no time works, which is the worst
+ * case for both strategies.
+ * When no time works, AnytimeStrategy returns null and WorkHoursStrategy throws, and both are
+ * measured the same way. Running main() runs every combination with the GC profiler, which
+ * adds the allocation rate to the results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StrategyBenchmark {
+  // the free hour shared by everyone in the "dense" layout: Friday at 1600
+  private static final int SHARED_FREE_HOUR = 5 * 24 + 16;
+  private static final int HOURS_IN_WEEK = Date.MINUTES_IN_WEEK / 60;
+
+  @Param({"anytime", "workhours"})
+  public String strategy;
+
+  @Param({"2", "20", "200", "2000"})
+  public int invitees;
+
+  @Param({"light", "dense", "full"})
+  public String layout;
+
+  @Param({"30", "60", "120"})
+  public String duration;
+
+  private SchedulingStrategy schedulingStrategy;
+  private List<String> invitedUsers;
+
+  @Setup
+  public void buildPlanner() {
+    List<User> users = new ArrayList<>(this.invitees);
+
+    for (int user = 0; user < this.invitees; user++) {
+      users.add(this.buildUser(Fixtures.userId(user), user));
+    }
+
+    NUPlanner planner = new NUPlanner(users);
+    this.invitedUsers = Fixtures.userIds(this.invitees);
+    this.schedulingStrategy = this.strategy.equals("anytime")
+            ? new AnytimeStrategy(planner) : new WorkHoursStrategy(planner);
+  }
+
+  /**
+   * Builds the schedule of the user at the given position, in the layout being measured.
+   */
+  private User buildUser(String userId, int position) {
+    User user = new User(userId);
+
+    for (int hour = 0; hour < HOURS_IN_WEEK; hour++) {
+      boolean busy;
+
+      switch (this.layout) {
+        case "light":
+          busy = hour % 24 == 9 + position % 8;
+          break;
+        case "dense":
+          busy = hour != SHARED_FREE_HOUR;
+          break;
+        default:
+          busy = true;
+      }
+
+      if (busy) {
+        // the last hour of the week ends right as the next week starts
+        int start = hour * 60;
+        user.addEvent(new Event(userId + " hour " + hour, "Snell Library", false,
+                Date.ofMinuteOfWeek(start),
+                Date.ofMinuteOfWeek((start + 60) % Date.MINUTES_IN_WEEK),
+                new ArrayList<>(List.of(userId))));
+      }
+    }
+
+    return user;
+  }
+
+  @Benchmark
+  public Event findEvent() {
+    try {
+      return this.schedulingStrategy.findEvent("Meeting", this.duration, "Churchill Hall",
+              false, this.invitedUsers);
+    } catch (IllegalArgumentException ex) {
+      // WorkHoursStrategy's way of saying that no time works
+      return null;
+    }
+  }
+
+  /**
+   * Runs every combination of the benchmark with the GC profiler.
+   * @param args command line arguments, which are ignored
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(StrategyBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+  }
+}
@@ -1,16 +1,21 @@
 package controller;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import model.Date;
-import model.Day;
 import model.Event;
 import model.NUPlannerModel;
+import model.User;
 
 /**
  * Represents an AnytimeStrategy. This strategy This scheduling strategy
  * will find the first possible time (starting Sunday at 00:00) that allows all
  * invitees and the host to be present and return an event with that block of time.
+ * The busy minutes of every invitee are combined into a GroupAvailability, which finds
+ * the first block of free time that is long enough for the event. Each block it finds is
+ * checked against the invitees' schedules before it is returned, so we never come up with a
+ * time that the model would turn down.
  */
 public class AnytimeStrategy implements SchedulingStrategy {
   private final NUPlannerModel model;
@@ -34,63 +39,38 @@ public class AnytimeStrategy implements SchedulingStrategy {
     int intDuration = SchedulingStrategyHelpers.validateEventDetails(
             eventName, duration, location, invitedUsers);
 
-    int days = intDuration / (24 * 60);
-    int remainingMinutes = intDuration % (24 * 60);
-    int hours = remainingMinutes / 60;
-    int minutes = remainingMinutes % 60;
+    GroupAvailability availability = new GroupAvailability();
+    List<User> users = new ArrayList<>(invitedUsers.size());
 
-    Day startDay = Day.Sunday;
-    String startTime = "0000";
-    Day endDay = Day.values()[days];
-    String endTime = String.format("%02d%02d", hours, minutes);
+    for (String userId : invitedUsers) {
+      User user = this.model.getUser(userId);
+      users.add(user);
 
-    int maxIterations = 7 * 24 * 60 / intDuration; // max iterations per week
-    int iterationCount = 0;
+      // an invitee who already has an event with this name conflicts no matter
+      // what time we pick, so there is no time that works for everyone
+      if (user.getSchedule().hasEventNameConflict(eventName)) {
+        return null;
+      }
 
-    while (iterationCount < maxIterations) {
-      Event event = new Event(eventName, location, online,
-              new Date(startDay, startTime), new Date(endDay, endTime), invitedUsers);
+      availability.addBusy(user.getSchedule().getOccupancy());
+    }
 
-      boolean conflictFound = false;
+    int start = availability.findFirstFreeRun(intDuration);
 
-      for (String userId : invitedUsers) {
-        if (model.doesEventConflictExist(userId, event)) {
-          conflictFound = true;
-          break;
-        }
-      }
+    while (start != -1) {
+      // the event may end during the following week, in which case its end date
+      // wraps back around to the same minute of the week
+      Date startDate = Date.ofMinuteOfWeek(start);
+      Date endDate = Date.ofMinuteOfWeek((start + intDuration) % Date.MINUTES_IN_WEEK);
+      Event event = new Event(eventName, location, online, startDate, endDate, invitedUsers);
 
-      if (!conflictFound) {
+      if (!SchedulingStrategyHelpers.conflictsForAnyone(users, event)) {
         return event;
-      } else {
-        startDay = Day.values()[Day.getIndexByDay(startDay) + 1]; // increment day
-
-        if (startDay == Day.Sunday) {
-          startTime = "0000"; // reset time if Sunday
-        }
-
-        Date endDate = getEndDate(new Date(startDay, startTime), intDuration);
-        endDay = endDate.getDay();
-        endTime = endDate.getTime();
       }
 
-      iterationCount++;
+      start = availability.findFirstFreeRun(intDuration, start + 1);
     }
 
     return null;
   }
-
-  private Date getEndDate(Date startDate, int duration) {
-    // Add duration to start time
-    int totalMinutes = Integer.parseInt(startDate.getTime()) + duration;
-    int days = totalMinutes / (24 * 60);
-    int remainingMinutes = totalMinutes % (24 * 60);
-    int hours = remainingMinutes / 60;
-    int minutes = remainingMinutes % 60;
-
-    // Set calculated date and time to the end date
-    Day newDay = Day.values()[Day.getIndexByDay(startDate.getDay()) + days];
-    String newTime = String.format("%02d%02d", hours, minutes);
-    return new Date(newDay, newTime);
-  }
 }
@@ -0,0 +1,206 @@
+package controller;
+
+import java.util.List;
+
+import model.Date;
+import model.Event;
+
+/**
+ * Represents a sweep-line search for the first block of time in which none of a group of
+ * users is busy, restricted to work hours: Monday to Friday between 0900 and 1700. Each
+ * user's events are already sorted by starting date, so rather than collecting and sorting
+ * every event again, we merge the users' lists with a heap keyed on the start of each user's
+ * next event. Sweeping over the merged events in order, overlapping events coalesce into a
+ * single busy stretch simply by remembering the latest end seen so far, and every gap
+ * between busy stretches is checked against the work hours windows. This takes
+ * O(total events * log users) time and allocates nothing beyond the heap.
+ * An event that continues into the following week also takes up the start of every week,
+ * from Sunday at 0000 until it ends. Work hours never run into the following week, so that
+ * is the only part of such an event we need on top of the sweep, and since it starts before
+ * any other event, it simply pushes back the first candidate.
+ */
+public class FreeSlotFinder {
+  private static final int WORK_DAY_START = 9 * 60;
+  private static final int WORK_DAY_END = 17 * 60;
+  private static final int FIRST_WORK_DAY = 1; // Monday
+  private static final int LAST_WORK_DAY = 5; // Friday
+
+  private final List<List<Event>> eventsByUser;
+
+  // the heap holds the indexes of the users who still have events left to sweep over,
+  // ordered by the start of the next event of each user
+  private final int[] heap;
+  private int heapSize;
+  // the position of the next event to sweep over in each user's list of events
+  private final int[] positions;
+
+  /**
+   * Creates a search over the events of the given users.
+   * @param eventsByUser the events of each user, each list sorted by starting date
+   */
+  public FreeSlotFinder(List<List<Event>> eventsByUser) {
+    if (eventsByUser == null) {
+      throw new IllegalArgumentException("eventsByUser must not be null.");
+    }
+
+    this.eventsByUser = eventsByUser;
+    this.heap = new int[eventsByUser.size()];
+    this.positions = new int[eventsByUser.size()];
+  }
+
+  /**
+   * Finds the first minute of the week during work hours from which every user is free for
+   * the given number of minutes, without the block of time running past 1700.
+   * @param duration number of minutes everyone must be free for
+   * @return the first minute of the week that starts such a block; -1 if there is none
+   */
+  public int findEarliestFreeSlot(int duration) {
+    return this.findEarliestFreeSlot(duration, 0);
+  }
+
+  /**
+   * Finds the first minute of the week, at or after the given minute, during work hours from
+   * which every user is free for the given number of minutes, in the same way as
+   * findEarliestFreeSlot(int).
+   * @param duration number of minutes everyone must be free for
+   * @param from first minute of the week that may start the block
+   * @return the first minute of the week that starts such a block; -1 if there is none
+   */
+  public int findEarliestFreeSlot(int duration, int from) {
+    if (duration <= 0) {
+      throw new IllegalArgumentException("Duration must be greater than 0.");
+    }
+
+    this.heapSize = 0;
+    int startOfWeekEnd = 0;
+    for (int user = 0; user < this.eventsByUser.size(); user++) {
+      this.positions[user] = 0;
+
+      if (!this.eventsByUser.get(user).isEmpty()) {
+        this.push(user);
+      }
+
+      for (Event event : this.eventsByUser.get(user)) {
+        startOfWeekEnd = Math.max(startOfWeekEnd,
+                event.getEndMinuteOfWeek() - Date.MINUTES_IN_WEEK);
+      }
+    }
+
+    int day = FIRST_WORK_DAY;
+    int candidate = Math.max(this.workDayStart(day), Math.max(from, startOfWeekEnd));
+
+    while (this.heapSize > 0) {
+      int user = this.heap[0];
+      Event event = this.eventsByUser.get(user).get(this.positions[user]);
+      int busyStart = event.getStartMinuteOfWeek();
+
+      // move the candidate forward to the first work day that it still fits in
+      while (candidate + duration > this.workDayEnd(day)) {
+        day++;
+
+        if (day > LAST_WORK_DAY) {
+          return -1;
+        }
+
+        candidate = Math.max(candidate, this.workDayStart(day));
+      }
+
+      if (candidate + duration <= busyStart) {
+        return candidate;
+      }
+
+      // the candidate runs into this event, so the earliest we could start is when it ends
+      candidate = Math.max(candidate, event.getEndMinuteOfWeek());
+      this.advance(user);
+    }
+
+    // nobody has anything left after the candidate, so we only need to find a work day
+    // with enough room left in it
+    while (day <= LAST_WORK_DAY) {
+      candidate = Math.max(candidate, this.workDayStart(day));
+
+      if (candidate + duration <= this.workDayEnd(day)) {
+        return candidate;
+      }
+
+      day++;
+    }
+
+    return -1;
+  }
+
+  private int workDayStart(int day) {
+    return day * Date.MINUTES_IN_DAY + WORK_DAY_START;
+  }
+
+  private int workDayEnd(int day) {
+    return day * Date.MINUTES_IN_DAY + WORK_DAY_END;
+  }
+
+  private int startOfNextEvent(int user) {
+    return this.eventsByUser.get(user).get(this.positions[user]).getStartMinuteOfWeek();
+  }
+
+  /**
+   * Moves past the next event of the user at the top of the heap, removing the user from
+   * the heap if they have no events left.
+   */
+  private void advance(int user) {
+    this.positions[user]++;
+
+    if (this.positions[user] == this.eventsByUser.get(user).size()) {
+      this.heapSize--;
+      this.heap[0] = this.heap[this.heapSize];
+    }
+
+    this.siftDown(0);
+  }
+
+  private void push(int user) {
+    int child = this.heapSize++;
+    this.heap[child] = user;
+
+    while (child > 0) {
+      int parent = (child - 1) / 2;
+
+      if (this.startOfNextEvent(this.heap[parent]) <= this.startOfNextEvent(this.heap[child])) {
+        return;
+      }
+
+      this.swap(parent, child);
+      child = parent;
+    }
+  }
+
+  private void siftDown(int parent) {
+    while (true) {
+      int smallest = parent;
+      int left = 2 * parent + 1;
+      int right = left + 1;
+
+      if (left < this.heapSize
+              && this.startOfNextEvent(this.heap[left])
+              < this.startOfNextEvent(this.heap[smallest])) {
+        smallest = left;
+      }
+      if (right < this.heapSize
+              && this.startOfNextEvent(this.heap[right])
+              < this.startOfNextEvent(this.heap[smallest])) {
+        smallest = right;
+      }
+
+      if (smallest == parent) {
+        return;
+      }
+
+      this.swap(parent, smallest);
+      parent = smallest;
+    }
+  }
+
+  private void swap(int first, int second) {
+    int temp = this.heap[first];
+    this.heap[first] = this.heap[second];
+    this.heap[second] = temp;
+  }
+}
@@ -0,0 +1,187 @@
+package controller;
+
+import model.Date;
+import model.OccupancyBitmap;
+
+/**
+ * Represents the combined availability of a group of users. Each user's occupancy bitmap
+ * is ORed into a single mask, one 64-bit word at a time, so a minute is busy in the mask if
+ * it is busy for at least one of the users. Finding a time that works for the whole group
+ * then comes down to finding the first run of zero bits that is long enough, which we do a
+ * word at a time by counting trailing zeros instead of checking minutes one by one.
+ * An event that continues into the following week also takes up the same minutes at the
+ * start of every week, so before searching we fold the following week onto this one, and
+ * repeat the folded week after itself, so that a block of time that continues into the
+ * following week is checked against the start of the week as well.
+ */
+public class GroupAvailability {
+  private final long[] busy;
+
+  /**
+   * Creates a group availability in which every minute is free.
+   */
+  public GroupAvailability() {
+    this.busy = new long[OccupancyBitmap.WORDS];
+  }
+
+  /**
+   * Adds the busy minutes of a user to the group.
+   * @param occupancy the minutes taken up by a user's events
+   */
+  public void addBusy(OccupancyBitmap occupancy) {
+    if (occupancy == null) {
+      throw new IllegalArgumentException("occupancy must not be null.");
+    }
+
+    occupancy.orInto(this.busy);
+  }
+
+  /**
+   * Finds the first minute of the week (starting Sunday at 0000) from which the whole group
+   * is free for the given number of minutes. The block of time may continue into the
+   * following week, but it must start during this week.
+   * @param duration number of minutes the group must be free for
+   * @return the first minute of the week that starts such a block; -1 if there is none
+   */
+  public int findFirstFreeRun(int duration) {
+    return this.findFirstFreeRun(duration, 0);
+  }
+
+  /**
+   * Finds the first minute of the week, at or after the given minute, from which the whole
+   * group is free for the given number of minutes, in the same way as findFirstFreeRun(int).
+   * @param duration number of minutes the group must be free for, less than a week
+   * @param from first minute of the week that may start the block
+   * @return the first minute of the week that starts such a block; -1 if there is none
+   */
+  public int findFirstFreeRun(int duration, int from) {
+    if (duration <= 0 || duration >= Date.MINUTES_IN_WEEK) {
+      throw new IllegalArgumentException("Duration must be greater than 0 and less than "
+          + "10080 minutes.");
+    } else if (from < 0) {
+      throw new IllegalArgumentException("from must not be negative.");
+    }
+
+    long[] week = this.foldedWeek();
+    int freeStart = nextFreeMinute(week, from);
+
+    while (freeStart < Date.MINUTES_IN_WEEK) {
+      int busyStart = nextBusyMinute(week, freeStart);
+
+      if (busyStart - freeStart >= duration) {
+        return freeStart;
+      }
+
+      freeStart = nextFreeMinute(week, busyStart);
+    }
+
+    return -1;
+  }
+
+  /**
+   * Folds the following week onto this one, so a minute of the week is busy if it is busy in
+   * either week, and repeats the result in place of the following week.
+   * @return the folded weeks, in the same layout as the busy minutes
+   */
+  private long[] foldedWeek() {
+    long[] week = new long[OccupancyBitmap.WORDS];
+    orShifted(this.busy, week, -Date.MINUTES_IN_WEEK);
+    for (int word = 0; word < OccupancyBitmap.WORDS; word++) {
+      week[word] |= this.busy[word];
+    }
+
+    // only this week is left; the following week becomes a copy of it
+    int lastWord = Date.MINUTES_IN_WEEK >>> 6;
+    week[lastWord] &= ~(-1L << Date.MINUTES_IN_WEEK);
+    for (int word = lastWord + 1; word < OccupancyBitmap.WORDS; word++) {
+      week[word] = 0;
+    }
+
+    orShifted(week.clone(), week, Date.MINUTES_IN_WEEK);
+    return week;
+  }
+
+  /**
+   * Moves every bit in the given words by the given number of minutes, and combines the
+   * result into another set of words. Bits moved past either end are dropped.
+   * @param from the words whose bits are moved
+   * @param into the words the moved bits are combined into
+   * @param shift number of minutes to move the bits forward by; negative to move them back
+   */
+  private static void orShifted(long[] from, long[] into, int shift) {
+    int wordShift = Math.abs(shift) >>> 6;
+    int bitShift = Math.abs(shift) & 63;
+
+    for (int word = 0; word < into.length; word++) {
+      // the two words of from that make up this word once moved
+      int low = shift > 0 ? word - wordShift - 1 : word + wordShift;
+      int high = low + 1;
+      long lowBits = low >= 0 && low < from.length ? from[low] : 0;
+      long highBits = high >= 0 && high < from.length ? from[high] : 0;
+
+      if (shift > 0) {
+        into[word] |= bitShift == 0 ? highBits
+            : (highBits << bitShift) | (lowBits >>> (Long.SIZE - bitShift));
+      } else {
+        into[word] |= bitShift == 0 ? lowBits
+            : (lowBits >>> bitShift) | (highBits << (Long.SIZE - bitShift));
+      }
+    }
+  }
+
+  /**
+   * Finds the first busy minute at or after a given minute.
+   * @param busy the busy minutes
+   * @param from minute to start looking from
+   * @return the first busy minute; OccupancyBitmap.MINUTES if there is none
+   */
+  private static int nextBusyMinute(long[] busy, int from) {
+    if (from >= OccupancyBitmap.MINUTES) {
+      return OccupancyBitmap.MINUTES;
+    }
+
+    int word = from >>> 6;
+    // ignore the minutes in the first word that come before from
+    long bits = busy[word] & (-1L << from);
+
+    while (bits == 0) {
+      word++;
+
+      if (word == OccupancyBitmap.WORDS) {
+        return OccupancyBitmap.MINUTES;
+      }
+
+      bits = busy[word];
+    }
+
+    return (word << 6) + Long.numberOfTrailingZeros(bits);
+  }
+
+  /**
+   * Finds the first free minute at or after a given minute.
+   * @param busy the busy minutes
+   * @param from minute to start looking from
+   * @return the first free minute; OccupancyBitmap.MINUTES if there is none
+   */
+  private static int nextFreeMinute(long[] busy, int from) {
+    if (from >= OccupancyBitmap.MINUTES) {
+      return OccupancyBitmap.MINUTES;
+    }
+
+    int word = from >>> 6;
+    // flipping the bits turns free minutes into set bits
+    long bits = ~busy[word] & (-1L << from);
+
+    while (bits == 0) {
+      word++;
+
+      if (word == OccupancyBitmap.WORDS) {
+        return OccupancyBitmap.MINUTES;
+      }
+
+      bits = ~busy[word];
+    }
+
+    return (word << 6) + Long.numberOfTrailingZeros(bits);
+  }
+}
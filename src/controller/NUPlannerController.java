@@ -16,6 +16,8 @@ public class NUPlannerController implements Features {
   private final IView mainSystemFrame;
   private NUPlannerModel model;
   private SchedulingStrategy schedulingStrategy;
+  // saves users in the background after they change; null if files are only saved on request
+  private WriteBehindSaver saver;
 
   /**
    * Creates a new instance of the NUPlannerController with the provided main system frame view
@@ -68,6 +70,21 @@ public class NUPlannerController implements Features {
     this.schedulingStrategy = schedulingStrategy;
   }
 
+  /**
+   * Sets the saver that saves users' XML files in the background. Once a saver is set, every
+   * user whose schedule is changed through this controller is saved shortly after, and
+   * saveUserToXML() no longer waits for the file to be written. Every change to the model is
+   * made while holding the model's lock, which the saver needs (see WriteBehindSaver).
+   * @param saver the saver to be used by the controller
+   */
+  public void setSaver(WriteBehindSaver saver) {
+    if (saver == null) {
+      throw new IllegalArgumentException("saver cannot be null.");
+    }
+
+    this.saver = saver;
+  }
+
   @Override
   public String modifyEvent(String oldEventName, Event modifiedEvent) {
     if (this.model == null) {
@@ -78,6 +95,7 @@ public class NUPlannerController implements Features {
 
     try {
       this.model.modifyEvent(oldEventName, modifiedEvent);
+      this.changed();
       this.mainSystemFrame.refresh();
       return "success";
     } catch (IllegalStateException | IllegalArgumentException e) {
@@ -95,6 +113,7 @@ public class NUPlannerController implements Features {
 
     try {
       this.model.addEvent(userId, event);
+      this.changed();
       this.mainSystemFrame.refresh();
       return "success";
     } catch (IllegalStateException | IllegalArgumentException e) {
@@ -112,6 +131,7 @@ public class NUPlannerController implements Features {
 
     try {
       this.model.removeEvent(userId, eventName);
+      this.changed();
       this.mainSystemFrame.refresh();
       return "success";
     } catch (IllegalStateException | IllegalArgumentException e) {
@@ -130,11 +150,22 @@ public class NUPlannerController implements Features {
     }
 
     try {
-      Event event = this.schedulingStrategy.findEvent(eventName,
-              duration, location, online, invitedUsers);
+      // the time that is found must still be free when the event is added, so both happen
+      // while holding the lock
+      Event event;
+      synchronized (this.model) {
+        event = this.schedulingStrategy.findEvent(eventName,
+                duration, location, online, invitedUsers);
+
+        if (event != null) {
+          this.model.addEvent(event.getInvitedUsers().get(0), event);
+        }
+      }
+      // the event is only waited for in the journal once the lock has been let go of
+      this.model.awaitDurable();
 
       if (event != null) {
-        this.model.addEvent(event.getInvitedUsers().get(0), event);
+        this.changed();
         this.mainSystemFrame.refresh();
         return "success";
       } else {
@@ -154,7 +185,13 @@ public class NUPlannerController implements Features {
     }
 
     try {
-      this.model.saveUserToXML(userId);
+      if (this.saver == null) {
+        this.model.saveUserToXML(userId);
+      } else {
+        // the file is written in the background, so all we can check here is the user
+        this.model.getUser(userId);
+        this.saver.save(userId);
+      }
       this.mainSystemFrame.refresh();
       return "success";
     } catch (IllegalStateException | IllegalArgumentException e) {
@@ -180,4 +217,13 @@ public class NUPlannerController implements Features {
       return e.getMessage();
     }
   }
+
+  /**
+   * Lets the saver know that the model has changed, if there is one.
+   */
+  private void changed() {
+    if (this.saver != null) {
+      this.saver.changed();
+    }
+  }
 }
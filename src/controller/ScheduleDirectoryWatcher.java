@@ -0,0 +1,216 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import helpers.XMLScheduleReader;
+import model.Event;
+import model.NUPlannerModel;
+import view.IFrame;
+
+/**
+ * Represents a watcher of a directory of XML files, which brings users' schedules up to date
+ * whenever their files in the directory are created or changed (see
+ * NUPlannerModel.reloadUser()). Only the files that changed are read. Files are often
+ * written in several steps, so the watcher waits until the directory has been quiet for a
+ * moment, reloads everything that changed in the meantime, and then refreshes the view once.
+ * A file that cannot be reloaded, such as one that is only half written, is reported and left
+ * alone until it changes again.
+ * The files are read on the watcher's own thread, but the model is only ever changed on the
+ * GUI's thread (see MutableNUPlannerModel), so the schedules that were read are handed over
+ * to it, and applied there all at once while holding the model's lock.
+ */
+public class ScheduleDirectoryWatcher implements AutoCloseable {
+  // how long the directory must go without changes before we reload what changed
+  private static final long QUIET_MILLIS = 200;
+
+  private final NUPlannerModel model;
+  private final IFrame view;
+  private final Path directory;
+  private final WatchService watchService;
+
+  /**
+   * Creates a new watcher of the given directory, which does not watch anything until it is
+   * started.
+   * @param model the model whose users are reloaded
+   * @param view the view to be refreshed after users are reloaded
+   * @param directory the directory holding the XML files
+   * @throws IllegalArgumentException if any argument is null, or directory is not a directory
+   * @throws IllegalStateException if the directory cannot be watched
+   */
+  public ScheduleDirectoryWatcher(NUPlannerModel model, IFrame view, String directory) {
+    if (model == null || view == null || directory == null) {
+      throw new IllegalArgumentException("model, view and directory cannot be null.");
+    }
+
+    this.directory = Paths.get(directory);
+
+    if (!Files.isDirectory(this.directory)) {
+      throw new IllegalArgumentException("Invalid directory.");
+    }
+
+    this.model = model;
+    this.view = view;
+
+    try {
+      this.watchService = this.directory.getFileSystem().newWatchService();
+      this.directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+              StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in watching the directory");
+    }
+  }
+
+  /**
+   * Starts watching the directory on a thread of its own, which runs until the watcher is
+   * closed.
+   */
+  public void start() {
+    Thread thread = new Thread(this::watch, "nuplanner-watcher");
+    // the thread must not keep the program running on its own once the GUI is gone
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Waits for files in the directory to change, and reloads them, until the watcher is closed.
+   */
+  private void watch() {
+    try {
+      while (true) {
+        Set<Path> changed = new LinkedHashSet<>();
+        this.collectChanges(this.watchService.take(), changed);
+
+        WatchKey key;
+        while ((key = this.watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          this.collectChanges(key, changed);
+        }
+
+        this.reload(changed);
+      }
+    } catch (ClosedWatchServiceException | InterruptedException ex) {
+      // the watcher was closed, so we are done
+    }
+  }
+
+  /**
+   * Adds the XML files that changed according to the given key to the set of changed files.
+   */
+  private void collectChanges(WatchKey key, Set<Path> changed) {
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        // too much changed at once for the file system to tell us what, so we check every file
+        this.collectEveryFile(changed);
+      } else {
+        Path file = this.directory.resolve((Path) event.context());
+
+        if (file.toString().endsWith(".xml")) {
+          changed.add(file);
+        }
+      }
+    }
+
+    key.reset();
+  }
+
+  private void collectEveryFile(Set<Path> changed) {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*.xml")) {
+      files.forEach(changed::add);
+    } catch (IOException ex) {
+      System.err.println("Could not list " + this.directory + ": " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Reads every changed file that is still there, and has the GUI's thread bring the users'
+   * schedules up to date with them.
+   */
+  private void reload(Set<Path> changed) {
+    List<Path> files = new ArrayList<>();
+    List<String> userIds = new ArrayList<>();
+    List<List<Event>> schedules = new ArrayList<>();
+
+    for (Path file : changed) {
+      if (!Files.isRegularFile(file)) {
+        continue;
+      }
+
+      try (XMLScheduleReader reader = new XMLScheduleReader(file.toString())) {
+        String userId = reader.getUserId();
+
+        if (userId.trim().isEmpty()) {
+          throw new IllegalArgumentException("UserId must not be an empty string.");
+        }
+
+        List<Event> events = new ArrayList<>();
+        while (reader.hasNextEvent()) {
+          events.add(reader.nextEvent());
+        }
+
+        files.add(file);
+        userIds.add(userId);
+        schedules.add(events);
+      } catch (RuntimeException ex) {
+        this.reportFailure(file, ex.getMessage());
+      }
+    }
+
+    if (!files.isEmpty()) {
+      SwingUtilities.invokeLater(() -> this.apply(files, userIds, schedules));
+    }
+  }
+
+  /**
+   * Brings the users' schedules up to date with what was read from their files, and refreshes
+   * the view once if any of them changed. Runs on the GUI's thread only.
+   */
+  private void apply(List<Path> files, List<String> userIds, List<List<Event>> schedules) {
+    boolean anyChanged = false;
+
+    synchronized (this.model) {
+      for (int file = 0; file < files.size(); file++) {
+        try {
+          anyChanged |= this.model.reloadUser(userIds.get(file), schedules.get(file));
+        } catch (RuntimeException ex) {
+          this.reportFailure(files.get(file), ex.getMessage());
+        }
+      }
+    }
+    this.model.awaitDurable();
+
+    if (anyChanged) {
+      this.view.refresh();
+    }
+  }
+
+  private void reportFailure(Path file, String reason) {
+    System.err.println("Could not reload " + file + ": " + reason);
+  }
+
+  /**
+   * Stops watching the directory.
+   */
+  @Override
+  public void close() {
+    try {
+      this.watchService.close();
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in closing the watcher");
+    }
+  }
+}
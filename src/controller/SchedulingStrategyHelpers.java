@@ -2,6 +2,10 @@ package controller;
 
 import java.util.List;
 
+import model.Date;
+import model.Event;
+import model.User;
+
 /**
  * Represents a schedulingStrategyHelpers class, which is responsible for
  * possessing logic that is shared between both strategies.
@@ -12,7 +16,8 @@ public class SchedulingStrategyHelpers {
    * Inspects the details of the event and ensures that they are valid.
    * @param eventName name of the event
    * @param duration duration (string in minutes, should not be negative,
-   *                 and should be between 0 and 10081 minutes, exclusive)
+   *                 and should be between 0 and 10080 minutes, exclusive, since an event
+   *                 that lasts a whole week would end at the same time it starts)
    * @param location location of the event
    * @param invitedUsers list of invited users
    * @return returns the duration, in minutes, if the event details are valid
@@ -35,9 +40,9 @@ public class SchedulingStrategyHelpers {
     try {
       intDuration = Integer.parseInt(duration);
 
-      if (intDuration <= 0 || intDuration > 10080) {
+      if (intDuration <= 0 || intDuration >= Date.MINUTES_IN_WEEK) {
         throw new IllegalArgumentException("Duration must be greater " +
-                "than 0 and not exceed 10080 minutes.");
+                "than 0 and less than 10080 minutes.");
       }
 
       return intDuration;
@@ -45,4 +50,21 @@ public class SchedulingStrategyHelpers {
       throw new IllegalArgumentException("Duration must be a valid integer in minutes.");
     }
   }
+
+  /**
+   * Checks to see whether an event a strategy came up with conflicts with any of the given
+   * users' schedules, in exactly the way the model checks it when the event is added.
+   * @param users the users the event is for
+   * @param event the event
+   * @return true if the event conflicts with at least one of the users; false otherwise
+   */
+  public static boolean conflictsForAnyone(List<User> users, Event event) {
+    for (User user : users) {
+      if (user.getSchedule().hasTimeConflict(event)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
 }
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import model.Date;
-import model.Day;
 import model.Event;
 import model.NUPlannerModel;
 import model.User;
@@ -15,7 +14,10 @@ import model.User;
  * 0900 and 1700 (inclusive) where all invitees and the host can attend the
  * even and return an event with that block of time. Note this means it is
  * impossible to schedule an event that goes to next week.
- * Otherwise, it would not be a work hours' event.
+ * Otherwise, it would not be a work hours' event. The search itself is done by a
+ * FreeSlotFinder, which sweeps over the invitees' events in starting date order. Each time
+ * it finds is checked against the invitees' schedules before it is returned, so we never
+ * come up with a time that the model would turn down.
  */
 public class WorkHoursStrategy implements SchedulingStrategy {
   private final NUPlannerModel model;
@@ -32,89 +34,46 @@ public class WorkHoursStrategy implements SchedulingStrategy {
     this.model = model;
   }
 
-  private User getUser(String userId) {
-    List<User> modelUsers = model.getUsers();
-    for (User user : modelUsers) {
-      if (user.getUserId().equals(userId)) {
-        return user;
-      }
-    }
-    return null;
-  }
-
   private List<User> getAllUsers(List<String> invitedUsers) {
-    List<User> invitees = new ArrayList<>();
+    List<User> users = new ArrayList<>();
     for (String id : invitedUsers) {
-      User user = getUser(id);
-      if (user != null) {
-        invitees.add(user);
-      } else {
-        // Handle the case where user is nul
+      try {
+        users.add(this.model.getUser(id));
+      } catch (IllegalArgumentException e) {
+        // Handle the case where user is not in the system
         System.err.println("User with ID " + id + " not found.");
       }
     }
-    return invitees;
-  }
-
-  private List<Interval> getAllUsersIntervals(List<User> invitees) {
-    List<Interval> intervals = new ArrayList<>();
-    for (User user : invitees) {
-      for (Event event : user.getEvents()) {
-        Interval anInterval = assignInterval(event);
-        intervals.add(anInterval);
-      }
-    }
-    return intervals;
-  }
-
-  private Interval assignInterval(Event event) {
-    return IntervalFactory.getInterval(event);
+    return users;
   }
 
   @Override
   public Event findEvent(String eventName, String duration,
                          String location, boolean online, List<String> invitedUsers) {
-    ArrayList<User> users = (ArrayList<User>) getAllUsers(invitedUsers);
-    List<Interval> allUsersIntervals = getAllUsersIntervals(users);
-    IntervalSearchTree ist = new IntervalSearchTree();
-    ist.buildIST((ArrayList<Interval>) allUsersIntervals);
-    long requiredDuration = Long.parseLong(duration);
-
-    // Find the earliest available interval that can accommodate the event duration
-    Interval timeInterval = ist.findEarliestFreeInterval(requiredDuration);
-
-    if (timeInterval == null) {
-      throw new IllegalArgumentException("No available interval found for the given duration.");
-    }
+    int requiredDuration = SchedulingStrategyHelpers.validateEventDetails(
+            eventName, duration, location, invitedUsers);
 
-    long starting = timeInterval.start;
-    long ending = starting + requiredDuration;
+    List<User> users = this.getAllUsers(invitedUsers);
+    List<List<Event>> eventsByUser = new ArrayList<>(users.size());
+    users.forEach(user -> eventsByUser.add(user.getEvents()));
 
-    int startDayIndex = (int) ((starting / (1440 * 7)) % 7);
-    // Calculate the day index within a week
-    int endDayIndex = (int) ((ending / (1440 * 7)) % 7);
-    // Calculate the day index within a week
+    // Find the earliest available time that can accommodate the event duration
+    FreeSlotFinder finder = new FreeSlotFinder(eventsByUser);
+    int starting = finder.findEarliestFreeSlot(requiredDuration);
 
-    Day startDay = Day.values()[startDayIndex];
-    Day endDay = Day.values()[endDayIndex];
+    while (starting != -1) {
+      // work hours end before midnight on Friday, so the event always ends the same day
+      Date startDate = Date.ofMinuteOfWeek(starting);
+      Date endDate = Date.ofMinuteOfWeek(starting + requiredDuration);
+      Event event = new Event(eventName, location, online, startDate, endDate, invitedUsers);
 
-    // Calculate the time within the day
-    int startTotalMinutes = (int) ((starting % (1440 * 7)) % 1440);
-    int endTotalMinutes = (int) ((ending % (1440 * 7)) % 1440);
-
-    // Format start time
-    String startTimeHours = String.format("%02d", startTotalMinutes / 60);
-    String startTimeMinutes = String.format("%02d", startTotalMinutes % 60);
-    String startTime = startTimeHours + startTimeMinutes;
-
-    // Format end time
-    String endTimeHours = String.format("%02d", endTotalMinutes / 60);
-    String endTimeMinutes = String.format("%02d", endTotalMinutes % 60);
-    String endTime = endTimeHours + endTimeMinutes;
+      if (!SchedulingStrategyHelpers.conflictsForAnyone(users, event)) {
+        return event;
+      }
 
-    Date startDate = new Date(startDay, startTime);
-    Date endDate = new Date(endDay, endTime);
+      starting = finder.findEarliestFreeSlot(requiredDuration, starting + 1);
+    }
 
-    return new Event(eventName, location, online, startDate, endDate, invitedUsers);
+    throw new IllegalArgumentException("No available interval found for the given duration.");
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import model.NUPlannerModel;
+
+/**
+ * Represents a write-behind saver, which saves users' XML files on a background thread so
+ * that the GUI never has to wait for a file to be written. Instead of saving right away, a
+ * change (or a request to save a user) starts a short window, and everything that happens
+ * within that window is saved together once it is over. A user whose schedule changes ten
+ * times in a row is therefore written once, not ten times.
+ * The saver only holds the model's lock (synchronized (model) { ... }) while the model reads
+ * the schedules to be saved, never while a file is written, so the GUI is only held up for as
+ * long as the reading takes. Anything that changes the model while the saver is running must
+ * hold the same lock, which the model's own mutators do (see MutableNUPlannerModel).
+ * The saver must be closed before the program exits, so that nothing waiting to be saved is
+ * lost.
+ */
+public class WriteBehindSaver implements AutoCloseable {
+  private final NUPlannerModel model;
+  private final long windowMillis;
+  private final ScheduledExecutorService executor;
+
+  // users someone asked to save, whether or not their schedules changed since their last save
+  private final Set<String> requestedUsers;
+  // the save that will happen at the end of the current window; null if there is none
+  private ScheduledFuture<?> pendingSave;
+
+  /**
+   * Creates a new saver for the given model, which starts out with nothing to save.
+   * @param model the model whose users are saved
+   * @param windowMillis how long to wait after a change before saving, in milliseconds
+   * @throws IllegalArgumentException if model is null or windowMillis is negative
+   */
+  public WriteBehindSaver(NUPlannerModel model, long windowMillis) {
+    if (model == null) {
+      throw new IllegalArgumentException("model cannot be null.");
+    } else if (windowMillis < 0) {
+      throw new IllegalArgumentException("windowMillis cannot be negative.");
+    }
+
+    this.model = model;
+    this.windowMillis = windowMillis;
+    this.requestedUsers = new LinkedHashSet<>();
+    // the thread must not keep the program running on its own once the GUI is gone
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "nuplanner-saver");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Records that the model has changed, so every user whose schedule changed is saved at the
+   * end of the current window.
+   * @throws IllegalStateException if the saver has been closed
+   */
+  public synchronized void changed() {
+    if (this.executor.isShutdown()) {
+      throw new IllegalStateException("Saver has been closed.");
+    }
+
+    if (this.pendingSave == null) {
+      this.pendingSave = this.executor.schedule(this::saveChanges, this.windowMillis,
+              TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Saves the given user at the end of the current window, even if their schedule has not
+   * changed since they were last saved.
+   * @param userId the user to be saved
+   * @throws IllegalArgumentException if userId is null
+   * @throws IllegalStateException if the saver has been closed
+   */
+  public synchronized void save(String userId) {
+    if (userId == null) {
+      throw new IllegalArgumentException("userId cannot be null.");
+    }
+
+    this.requestedUsers.add(userId);
+    this.changed();
+  }
+
+  /**
+   * Saves everything that is waiting to be saved right away, and waits for it to be written.
+   * Does nothing once the saver has been closed, since everything was saved then. This must
+   * not be called while holding the model's lock, since saving needs that lock.
+   */
+  public void flushAndWait() {
+    if (this.executor.isShutdown()) {
+      return;
+    }
+
+    try {
+      this.executor.submit(this::saveChanges).get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException ex) {
+      // saveChanges() reports its own failures, so there is nothing left to handle here
+    }
+  }
+
+  /**
+   * Saves everything that was changed or requested since the last save. Runs on the saver's
+   * thread only.
+   */
+  private void saveChanges() {
+    List<String> userIds;
+    synchronized (this) {
+      // a change from here on starts a new window, since this save may already be past it
+      if (this.pendingSave != null) {
+        this.pendingSave.cancel(false);
+        this.pendingSave = null;
+      }
+
+      userIds = new ArrayList<>(this.requestedUsers);
+      this.requestedUsers.clear();
+    }
+
+    // saveUserToXML() and saveAll() read the schedules while holding the model's lock
+    // themselves, and let go of it before writing
+    for (String userId : userIds) {
+      try {
+        this.model.saveUserToXML(userId);
+      } catch (RuntimeException ex) {
+        this.reportFailure(userId, ex.getMessage());
+      }
+    }
+
+    Map<String, String> failures = this.model.saveAll();
+    failures.forEach(this::reportFailure);
+  }
+
+  private void reportFailure(String userId, String reason) {
+    System.err.println("Could not save " + userId + ": " + reason);
+  }
+
+  /**
+   * Saves everything that is waiting to be saved, and stops the saver's thread.
+   */
+  @Override
+  public void close() {
+    this.flushAndWait();
+    this.executor.shutdown();
+  }
+}
@@ -0,0 +1,112 @@
+package helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import model.Date;
+import model.Event;
+
+/**
+ * Represents a single event exactly as it was read from an XML file, before it has been
+ * checked and turned into an Event. The times are kept as minutes of the week (the day's
+ * ordinal times the minutes in a day, plus the minutes into that day), and the invitees as a
+ * plain array, so reading an event costs one object for the record and one for the array on
+ * top of the strings in the file. The model decides whether the record makes a valid event.
+ */
+public final class EventRecord {
+  private final String name;
+  private final String place;
+  private final boolean online;
+  private final int startMinuteOfWeek;
+  private final int endMinuteOfWeek;
+  private final String[] invitedUsers;
+
+  /**
+   * Creates a new record of an event read from a file.
+   * @param name name of the event
+   * @param place location of the event
+   * @param online whether the event is online or not
+   * @param startMinuteOfWeek minutes since Sunday at 0000 that the event starts at
+   * @param endMinuteOfWeek minutes since Sunday at 0000 that the event ends at
+   * @param invitedUsers ids of the invited users, with the host first
+   * @throws IllegalArgumentException if any argument is null, or a minute is not within a week
+   */
+  public EventRecord(String name, String place, boolean online,
+                     int startMinuteOfWeek, int endMinuteOfWeek, String[] invitedUsers) {
+    if (name == null || place == null || invitedUsers == null) {
+      throw new IllegalArgumentException("name, place and invitedUsers must not be null.");
+    } else if (startMinuteOfWeek < 0 || startMinuteOfWeek >= Date.MINUTES_IN_WEEK
+            || endMinuteOfWeek < 0 || endMinuteOfWeek >= Date.MINUTES_IN_WEEK) {
+      throw new IllegalArgumentException("Invalid minute of the week.");
+    }
+
+    this.name = name;
+    this.place = place;
+    this.online = online;
+    this.startMinuteOfWeek = startMinuteOfWeek;
+    this.endMinuteOfWeek = endMinuteOfWeek;
+    this.invitedUsers = invitedUsers;
+  }
+
+  /**
+   * Retrieves the name of the event.
+   * @return the name of the event
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Retrieves the location of the event.
+   * @return the location of the event
+   */
+  public String getPlace() {
+    return this.place;
+  }
+
+  /**
+   * Retrieves whether the event is online.
+   * @return true if the event is online; false otherwise
+   */
+  public boolean isOnline() {
+    return this.online;
+  }
+
+  /**
+   * Retrieves the moment the event starts at.
+   * @return minutes since Sunday at 0000
+   */
+  public int getStartMinuteOfWeek() {
+    return this.startMinuteOfWeek;
+  }
+
+  /**
+   * Retrieves the moment the event ends at, which is before the start when the event runs
+   * into next week.
+   * @return minutes since Sunday at 0000
+   */
+  public int getEndMinuteOfWeek() {
+    return this.endMinuteOfWeek;
+  }
+
+  /**
+   * Retrieves how many users are invited to the event.
+   * @return the number of invited users
+   */
+  public int getInviteeCount() {
+    return this.invitedUsers.length;
+  }
+
+  /**
+   * Turns the record into an event. The dates are the shared instances from Date.of(), so
+   * the only new objects are the event and its list of invitees.
+   * @return the event
+   * @throws IllegalArgumentException if the record does not make a valid event
+   */
+  public Event toEvent() {
+    return new Event(this.name, this.place, this.online,
+            Date.ofMinuteOfWeek(this.startMinuteOfWeek),
+            Date.ofMinuteOfWeek(this.endMinuteOfWeek),
+            new ArrayList<>(Arrays.asList(this.invitedUsers)));
+  }
+}
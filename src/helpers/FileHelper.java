@@ -1,19 +1,31 @@
 package helpers;
 
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -28,9 +40,16 @@ import model.User;
  */
 public class FileHelper {
 
+  // big enough that writing out even a full week of back-to-back events only takes a handful
+  // of trips to the disk
+  private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
   /**
    * Takes an existing User and writes the contents of their events
-   * to an XML file.
+   * to an XML file. The file is first written in full to a temporary file next to it, which
+   * then replaces the file in a single step, so a failure halfway through never leaves a
+   * partially written schedule behind. Any of the characters that are special to XML in the
+   * user's id or events are escaped.
    * @param fileName name of file to be written to
    */
   public static void writeToFile(User user, String fileName) {
@@ -38,44 +57,275 @@ public class FileHelper {
       throw new IllegalArgumentException("User and fileName must not be null.");
     }
 
-    ArrayList<Event> events = user.getEvents();
+    writeAtomically(fileName, out -> {
+      Writer file = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+              WRITE_BUFFER_SIZE);
+      writeSchedule(user, file);
+      file.flush();
+    });
+  }
+
+  /**
+   * Writes contents that were already rendered (see toXML()) to a file, in the same way as
+   * writeToFile(User, String).
+   * @param contents the contents of the file
+   * @param fileName name of file to be written to
+   */
+  public static void writeBytesToFile(byte[] contents, String fileName) {
+    if (contents == null || fileName == null) {
+      throw new IllegalArgumentException("Contents and fileName must not be null.");
+    }
+
+    writeAtomically(fileName, out -> out.write(contents));
+  }
 
+  /**
+   * Renders the XML file of a user's schedule, exactly as writeToFile() would write it.
+   * @param user the user whose schedule is being rendered
+   * @return the UTF-8 bytes of the XML file
+   */
+  public static byte[] toXML(User user) {
+    if (user == null) {
+      throw new IllegalArgumentException("User must not be null.");
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
     try {
-      Writer file = new FileWriter(fileName);
-      file.write("<?xml version=\"1.0\"?>\n");
-      file.write("<schedule id=\"" + user.getUserId() + "\">\n");
-
-      for (Event event : events) {
-        file.write("    <event>\n");
-        file.write("        <name>" + event.getName() + "</name>\n");
-
-        file.write("        <time>\n");
-        file.write("            <start-day>" + event.getStartDate().getDay() + "</start-day>\n");
-        file.write("            <start>" + event.getStartDate().getTime() + "</start>\n");
-        file.write("            <end-day>" + event.getEndDate().getDay() + "</end-day>\n");
-        file.write("            <end>" + event.getEndDate().getTime() + "</end>\n");
-        file.write("        </time>\n");
-
-        file.write("        <location>\n");
-        file.write("            <online>" + event.getOnline() + "</online>\n");
-        file.write("            <place>" + event.getLocation() + "</place>\n");
-        file.write("        </location>\n");
-
-        file.write("        <users>\n");
-        for (String username : event.getInvitedUsers()) {
-          file.write("            <uid>" + username + "</uid>\n");
-        }
-        file.write("        </users>\n");
-        file.write("    </event>\n");
+      Writer file = new OutputStreamWriter(bytes, StandardCharsets.UTF_8);
+      writeSchedule(user, file);
+      file.flush();
+    } catch (IOException ex) {
+      // writing to memory does not fail
+      throw new IllegalStateException(ex.getMessage());
+    }
+
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Computes a SHA-256 hash of the contents of a file, which tells whether two versions of a
+   * file are the same without having to keep both around.
+   * @param contents the contents of the file
+   * @return the hash of the contents
+   */
+  public static byte[] contentHash(byte[] contents) {
+    if (contents == null) {
+      throw new IllegalArgumentException("Contents must not be null.");
+    }
+
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(contents);
+    } catch (NoSuchAlgorithmException ex) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(ex.getMessage());
+    }
+  }
+
+  /**
+   * Represents the contents of a file, which may fail to be written.
+   */
+  private interface FileContents {
+    void writeTo(OutputStream out) throws IOException;
+  }
+
+  /**
+   * Writes a file in full to a temporary file next to it, forces that to the disk, and then
+   * moves it into place.
+   * @param fileName name of file to be written to
+   * @param contents the contents of the file
+   */
+  private static void writeAtomically(String fileName, FileContents contents) {
+    Path target = Paths.get(fileName).toAbsolutePath();
+    Path temp = null;
+
+    try {
+      temp = createTempSibling(target);
+
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        contents.writeTo(Channels.newOutputStream(channel));
+        channel.force(true);
       }
 
-      file.write("</schedule>");
-      file.close();
+      moveIntoPlace(temp, target);
     } catch (IOException ex) {
+      deleteQuietly(temp);
       throw new RuntimeException(ex.getMessage());
     }
   }
 
+  /**
+   * Creates an empty temporary file to write a file to before moving it into place. It has
+   * to live in the same directory, otherwise it could end up on a different file system,
+   * where it cannot simply be renamed into place. Every call gets a file of its own, so two
+   * threads writing the same file at once never write into each other's temporary file.
+   * The temporary file ends up being the file, so it is created with the permissions a new
+   * file normally gets, or with the permissions of the file it replaces, if there is one,
+   * rather than the owner-only permissions of Files.createTempFile().
+   * @param target the file that is going to be replaced
+   * @return the temporary file
+   * @throws IOException if the temporary file cannot be created
+   */
+  static Path createTempSibling(Path target) throws IOException {
+    Path temp;
+    while (true) {
+      long suffix = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+      temp = target.resolveSibling(target.getFileName() + "." + suffix + ".tmp");
+
+      try {
+        Files.createFile(temp);
+        break;
+      } catch (FileAlreadyExistsException ex) {
+        // someone else got this name first, so we try another
+      }
+    }
+
+    PosixFileAttributeView targetAttributes = Files.getFileAttributeView(target,
+            PosixFileAttributeView.class);
+
+    try {
+      if (targetAttributes != null && Files.exists(target)) {
+        Files.setPosixFilePermissions(temp, targetAttributes.readAttributes().permissions());
+      }
+    } catch (IOException ex) {
+      deleteQuietly(temp);
+      throw ex;
+    }
+
+    return temp;
+  }
+
+  /**
+   * Deletes a temporary file that did not make it into place, if there is one.
+   * @param temp the temporary file, or null if it was never created
+   */
+  static void deleteQuietly(Path temp) {
+    if (temp == null) {
+      return;
+    }
+
+    try {
+      Files.deleteIfExists(temp);
+    } catch (IOException deleteEx) {
+      // the original failure is the one worth reporting
+    }
+  }
+
+  /**
+   * Replaces a file with a fully written temporary file from the same directory (see
+   * createTempSibling()), in a single step where the file system allows it. The temporary
+   * file must already have been forced to the disk, otherwise a crash right after the move
+   * could leave the file in place but without its contents.
+   * @param temp the fully written temporary file
+   * @param target the file to be replaced
+   * @throws IOException if the temporary file cannot be moved
+   */
+  static void moveIntoPlace(Path temp, Path target) throws IOException {
+    try {
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE,
+              StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException ex) {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Writes the XML representation of a user's schedule.
+   * @param user the user whose schedule is being written
+   * @param file where the XML is written to
+   * @throws IOException if writing fails
+   */
+  private static void writeSchedule(User user, Writer file) throws IOException {
+    file.write("<?xml version=\"1.0\"?>\n");
+    file.write("<schedule id=\"");
+    writeEscaped(user.getUserId(), true, file);
+    file.write("\">\n");
+
+    for (Event event : user.getEvents()) {
+      file.write("    <event>\n");
+      file.write("        <name>");
+      writeEscaped(event.getName(), false, file);
+      file.write("</name>\n");
+
+      file.write("        <time>\n");
+      file.write("            <start-day>");
+      file.write(event.getStartDate().getDay().toString());
+      file.write("</start-day>\n");
+      file.write("            <start>");
+      file.write(event.getStartDate().getTime());
+      file.write("</start>\n");
+      file.write("            <end-day>");
+      file.write(event.getEndDate().getDay().toString());
+      file.write("</end-day>\n");
+      file.write("            <end>");
+      file.write(event.getEndDate().getTime());
+      file.write("</end>\n");
+      file.write("        </time>\n");
+
+      file.write("        <location>\n");
+      file.write("            <online>");
+      file.write(String.valueOf(event.getOnline()));
+      file.write("</online>\n");
+      file.write("            <place>");
+      writeEscaped(event.getLocation(), false, file);
+      file.write("</place>\n");
+      file.write("        </location>\n");
+
+      file.write("        <users>\n");
+      for (String username : event.getInvitedUsers()) {
+        file.write("            <uid>");
+        writeEscaped(username, false, file);
+        file.write("</uid>\n");
+      }
+      file.write("        </users>\n");
+      file.write("    </event>\n");
+    }
+
+    file.write("</schedule>");
+  }
+
+  /**
+   * Writes a piece of text, escaping the characters that would otherwise be read as XML
+   * markup. Stretches of text without any such characters are written as they are.
+   * @param text the text to be written
+   * @param attribute true if the text is the value of an attribute, in which case double
+   *                  quotes are escaped as well; false otherwise
+   * @param file where the text is written to
+   * @throws IOException if writing fails
+   */
+  private static void writeEscaped(String text, boolean attribute, Writer file)
+          throws IOException {
+    int unwritten = 0;
+
+    for (int idx = 0; idx < text.length(); idx++) {
+      String escaped;
+
+      switch (text.charAt(idx)) {
+        case '&':
+          escaped = "&amp;";
+          break;
+        case '<':
+          escaped = "&lt;";
+          break;
+        case '>':
+          escaped = "&gt;";
+          break;
+        case '"':
+          escaped = attribute ? "&quot;" : null;
+          break;
+        default:
+          escaped = null;
+      }
+
+      if (escaped != null) {
+        file.write(text, unwritten, idx - unwritten);
+        file.write(escaped);
+        unwritten = idx + 1;
+      }
+    }
+
+    file.write(text, unwritten, text.length() - unwritten);
+  }
+
   /**
    * Retrieves the user id from an XML
    * file, (ex: schedule id="Prof. Lucia" where the id is "Prof. Lucia").
@@ -119,85 +369,23 @@ public class FileHelper {
     }
   }
 
-  /**
-   * retrieves all the content inside a single event tag.
-   * @param child a document element that represents an event
-   * @param eventContent content within a single event element
-   */
-  private static void getSingleEvent(Node child, List<String> eventContent) {
-    NodeList childNodes = child.getChildNodes();
-    for (int grandChildIdx = 0; grandChildIdx < childNodes.getLength(); grandChildIdx++) {
-      Node grandChildNode = childNodes.item(grandChildIdx);
-
-      if (grandChildNode.getNodeType() == Node.ELEMENT_NODE) {
-        Element grandChild = (Element) grandChildNode;
-        eventContent.add(grandChild.getTagName() + ":" + grandChild.getTextContent());
-      }
-    }
-  }
-
-  /**
-   * retrieves all events represented by the event tag and their contents.
-   * @param childNode an event node
-   * @param event hashmap representing the contents of all events
-   */
-  private static void getAllEvents(Node childNode, Map<String, ArrayList<String>> event) {
-    if (childNode.getNodeType() == Node.ELEMENT_NODE) {
-      Element child = (Element) childNode;
-
-      ArrayList<String> eventContent = new ArrayList<>();
-      event.put(child.getTagName(), eventContent);
-
-      // <name> has no nested content associated with it, so we can skip the call to get nested
-      // contents via getSingleEvent() and simply get the text contents inside <name>
-      if (child.getTagName().equals("name")) {
-        eventContent.add(child.getTextContent());
-      } else {
-        getSingleEvent(child, eventContent);
-      }
-    }
-  }
-
-  /**
-   * parses the xml code within a schedule tag.
-   * @param schedule hashmap representing the schedule
-   * @param nodeList all the nodes in a file document
-   */
-  private static void parseXML(Map<Integer, HashMap<String, ArrayList<String>>> schedule,
-                               NodeList nodeList) {
-    for (int item = 0; item < nodeList.getLength(); item++) {
-      Node current = nodeList.item(item);
-
-      if (current.getNodeType() == Node.ELEMENT_NODE) {
-        HashMap<String, ArrayList<String>> event = new HashMap<>();
-        schedule.put(schedule.size() + 1, event);
-        NodeList elemChildren = current.getChildNodes();
-
-        for (int childIdx = 0; childIdx < elemChildren.getLength(); childIdx++ ) {
-          Node childNode = elemChildren.item(childIdx);
-          getAllEvents(childNode, event);
-        }
-      }
-    }
-  }
-
   /**
    * reads the schedule associated with a user from an XML file.
    * @param fileName name of a file associated with a user
-   * @return hashmap containing schedule content
+   * @return the records of the events in the schedule, in the order they appear in the file
    */
-  public static Map<Integer, HashMap<String,
-            ArrayList<String>>> readUserScheduleFromXML(String fileName) {
+  public static List<EventRecord> readUserScheduleFromXML(String fileName) {
     if (fileName == null) {
       throw new IllegalArgumentException("fileName must not be null.");
     }
 
-    HashMap<Integer, HashMap<String, ArrayList<String>>> schedule = new HashMap<>();
+    List<EventRecord> schedule = new ArrayList<>();
 
-    Document xmlDoc = createXMlDoc(fileName);
-    Node tutorialsNode = xmlDoc.getElementsByTagName("schedule").item(0);
-    NodeList nodeList = tutorialsNode.getChildNodes();
-    parseXML(schedule, nodeList);
+    try (XMLScheduleReader reader = new XMLScheduleReader(fileName)) {
+      while (reader.hasNextEvent()) {
+        schedule.add(reader.nextRecord());
+      }
+    }
 
     return schedule;
   }
@@ -0,0 +1,491 @@
+package helpers;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import model.Date;
+import model.Event;
+import model.NUPlannerModel;
+import model.User;
+
+/**
+ * Represents an append-only journal of the changes made to a NUPlanner since its last
+ * snapshot (see Snapshot). Instead of rewriting whole files whenever something changes, every
+ * change is appended to the end of the journal as one small record, and starting up again is
+ * a matter of loading the snapshot and replaying the journal on top of it.
+ * The journal starts with a header holding the id of the snapshot it builds on, so a journal
+ * left over from an older snapshot is never replayed on top of a newer one. Each record is
+ * written as its length, a CRC32 checksum, and then its contents. If the program stops in the
+ * middle of writing a record, the checksum tells us on the next start up, and that record and
+ * anything after it are discarded. A record that is intact but cannot be replayed (the model
+ * turns down the change it describes) is reported on System.err and skipped, and the records
+ * after it are still replayed and kept, so a bad record neither keeps the program from
+ * starting nor takes any other change with it.
+ * Every record holds everything needed to replay it. Users uploaded or reloaded from XML files
+ * are recorded with the events the files held at the time, rather than by the files
+ * themselves, which may well have changed by the time the journal is replayed.
+ * Recording a change only writes its record; awaitDurable() then waits for it to be forced
+ * to the disk. The two are kept apart so that a change can be recorded while holding the
+ * model's lock, and waited for after letting go of it. Forcing the disk is slow, so when
+ * several threads wait at the same time, a single force covers every record written so far,
+ * and the threads that were waiting for it do not force the disk again.
+ */
+public class MutationJournal implements AutoCloseable {
+  private static final int MAGIC = 0x4E55504A; // "NUPJ"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 2 * Integer.BYTES + Long.BYTES;
+  // the length and checksum that come before the contents of every record
+  private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+  private static final byte USER_ADDED = 1;
+  private static final byte EVENT_ADDED = 2;
+  private static final byte EVENT_REMOVED = 3;
+  private static final byte EVENT_MODIFIED = 4;
+  private static final byte EVENT_SCHEDULED = 5;
+  private static final byte USER_RELOADED = 6;
+
+  private final FileChannel channel;
+  // only one thread forces the disk at a time, and whoever does covers everyone before them
+  private final Object forceLock;
+  // where the next record will be written; guarded by this
+  private long writtenPosition;
+  // everything before this position is known to be on the disk; guarded by forceLock
+  private long durablePosition;
+
+  private MutationJournal(FileChannel channel, long position) {
+    this.channel = channel;
+    this.forceLock = new Object();
+    this.writtenPosition = position;
+    this.durablePosition = position;
+  }
+
+  /**
+   * Opens a journal, replaying every change recorded in it on top of the given model, which
+   * must hold exactly what was in the snapshot with the given id. If the journal does not
+   * exist yet, or builds on a different snapshot, it is started over empty instead. Changes are
+   * replayed through the model's own methods, so the journal must not be attached to the model
+   * (see NUPlanner.setJournal()) until it has been opened. A change that cannot be replayed
+   * is reported and skipped, and is left in the journal along with every change after it.
+   * @param fileName name of the journal file
+   * @param snapshotId id of the snapshot the model was loaded from
+   * @param model the model to replay the changes on
+   * @return the journal, ready for new changes to be recorded after the replayed ones
+   * @throws IllegalStateException if the journal cannot be opened or read
+   */
+  public static MutationJournal open(String fileName, long snapshotId, NUPlannerModel model) {
+    if (fileName == null || model == null) {
+      throw new IllegalArgumentException("fileName and model must not be null.");
+    }
+
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+              StandardOpenOption.READ, StandardOpenOption.WRITE);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in opening the journal");
+    }
+
+    try {
+      long end = replay(channel, snapshotId, model);
+
+      if (end < 0) {
+        MutationJournal journal = new MutationJournal(channel, 0);
+        journal.reset(snapshotId);
+        return journal;
+      }
+
+      // anything after the last complete record was cut off part way through being written
+      channel.truncate(end);
+      return new MutationJournal(channel, end);
+    } catch (IOException ex) {
+      closeQuietly(channel);
+      throw new IllegalStateException("Error in reading the journal");
+    }
+  }
+
+  /**
+   * Replays every complete record in the journal, skipping any that cannot be replayed.
+   * @return the position right after the last complete record; -1 if the journal is empty or
+   *         builds on a different snapshot, in which case nothing was replayed
+   */
+  private static long replay(FileChannel channel, long snapshotId, NUPlannerModel model)
+          throws IOException {
+    channel.position(0);
+    DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Channels.newInputStream(channel)));
+
+    try {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != snapshotId) {
+        return -1;
+      }
+    } catch (EOFException ex) {
+      return -1;
+    }
+
+    long position = HEADER_SIZE;
+    CRC32 checksum = new CRC32();
+
+    while (true) {
+      byte[] contents;
+      try {
+        int length = in.readInt();
+        int expected = in.readInt();
+
+        if (length < 0 || length > channel.size() - position) {
+          return position;
+        }
+
+        contents = new byte[length];
+        in.readFully(contents);
+        checksum.reset();
+        checksum.update(contents);
+
+        if ((int) checksum.getValue() != expected) {
+          return position;
+        }
+      } catch (EOFException ex) {
+        return position;
+      }
+
+      try {
+        apply(new DataInputStream(new ByteArrayInputStream(contents)), model);
+      } catch (IOException | IllegalArgumentException | IllegalStateException ex) {
+        // an IOException here means the record itself is shorter than what it describes
+        System.err.println("Skipped the journal record at " + position
+            + ", which could not be replayed: " + ex.getMessage());
+      }
+
+      position += RECORD_HEADER_SIZE + contents.length;
+    }
+  }
+
+  /**
+   * Applies the change a single record describes.
+   */
+  private static void apply(DataInputStream record, NUPlannerModel model) throws IOException {
+    switch (record.readByte()) {
+      case USER_ADDED:
+        User user = new User(record.readUTF());
+        readEvents(record).forEach(user::addEvent);
+        model.addUser(user);
+        break;
+      case USER_RELOADED:
+        String reloadedUserId = record.readUTF();
+        model.reloadUser(reloadedUserId, readEvents(record));
+        break;
+      case EVENT_ADDED:
+        String host = record.readUTF();
+        model.addEvent(host, readEvent(record));
+        break;
+      case EVENT_REMOVED:
+        String userId = record.readUTF();
+        model.removeEvent(userId, record.readUTF());
+        break;
+      case EVENT_MODIFIED:
+        String oldEventName = record.readUTF();
+        model.modifyEvent(oldEventName, readEvent(record));
+        break;
+      case EVENT_SCHEDULED:
+        List<String> userIds = readStrings(record);
+        model.scheduleEvent(userIds, readEvent(record));
+        break;
+      default:
+        throw new IllegalStateException("Unknown journal record.");
+    }
+  }
+
+  /**
+   * Records that a user and their schedule were added to the system.
+   * @param user the user that was added
+   */
+  public void userAdded(User user) {
+    this.usersAdded(Map.of(user.getUserId(), user.getEvents()));
+  }
+
+  /**
+   * Records that several users and their schedules were added to the system, such as users
+   * uploaded from XML files.
+   * @param schedules the users that were added, in the order they were added, mapped to the
+   *                  events they were added with
+   */
+  public void usersAdded(Map<String, ? extends List<Event>> schedules) {
+    for (Map.Entry<String, ? extends List<Event>> schedule : schedules.entrySet()) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream record = new DataOutputStream(bytes);
+
+      try {
+        record.writeByte(USER_ADDED);
+        record.writeUTF(schedule.getKey());
+        writeEvents(schedule.getValue(), record);
+      } catch (IOException ex) {
+        throw new IllegalStateException("Error in writing to the journal");
+      }
+
+      this.append(bytes.toByteArray());
+    }
+  }
+
+  /**
+   * Records that a user's schedule was brought up to date with a newer version of it, through
+   * NUPlanner.reloadUser() or NUPlanner.reloadXMLFile().
+   * @param userId the user whose schedule was reloaded
+   * @param events every event in the newer version of their schedule
+   */
+  public void userReloaded(String userId, List<Event> events) {
+    this.record(USER_RELOADED, record -> {
+      record.writeUTF(userId);
+      writeEvents(events, record);
+    });
+  }
+
+  /**
+   * Records that an event was added to a user's schedule through NUPlanner.addEvent().
+   * @param userId the user who added the event
+   * @param event the event
+   */
+  public void eventAdded(String userId, Event event) {
+    this.record(EVENT_ADDED, record -> {
+      record.writeUTF(userId);
+      writeEvent(event, record);
+    });
+  }
+
+  /**
+   * Records that an event was removed through NUPlanner.removeEvent().
+   * @param userId the user who removed the event
+   * @param eventName name of the event
+   */
+  public void eventRemoved(String userId, String eventName) {
+    this.record(EVENT_REMOVED, record -> {
+      record.writeUTF(userId);
+      record.writeUTF(eventName);
+    });
+  }
+
+  /**
+   * Records that an event was modified through NUPlanner.modifyEvent().
+   * @param oldEventName the name of the event before it was modified
+   * @param modifiedEvent the modified event
+   */
+  public void eventModified(String oldEventName, Event modifiedEvent) {
+    this.record(EVENT_MODIFIED, record -> {
+      record.writeUTF(oldEventName);
+      writeEvent(modifiedEvent, record);
+    });
+  }
+
+  /**
+   * Records that an event was scheduled through NUPlanner.scheduleEvent().
+   * @param userIds the users the event was scheduled for
+   * @param event the event
+   */
+  public void eventScheduled(List<String> userIds, Event event) {
+    this.record(EVENT_SCHEDULED, record -> {
+      writeStrings(userIds, record);
+      writeEvent(event, record);
+    });
+  }
+
+  /**
+   * Empties the journal, which now builds on the snapshot with the given id. This is done
+   * right after a new snapshot has been written, as the snapshot already holds every change
+   * the journal did.
+   * @param snapshotId id of the snapshot the journal now builds on
+   */
+  public void reset(long snapshotId) {
+    synchronized (this.forceLock) {
+      synchronized (this) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(snapshotId).flip();
+
+        try {
+          this.channel.truncate(0);
+          while (header.hasRemaining()) {
+            this.channel.write(header, header.position());
+          }
+          this.channel.force(true);
+        } catch (IOException ex) {
+          throw new IllegalStateException("Error in writing to the journal");
+        }
+
+        this.writtenPosition = HEADER_SIZE;
+        this.durablePosition = HEADER_SIZE;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      this.channel.close();
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in closing the journal");
+    }
+  }
+
+  /**
+   * Represents the contents of a single record, which may fail to be written.
+   */
+  private interface RecordWriter {
+    void write(DataOutputStream record) throws IOException;
+  }
+
+  private void record(byte type, RecordWriter contents) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream record = new DataOutputStream(bytes);
+
+    try {
+      record.writeByte(type);
+      contents.write(record);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in writing to the journal");
+    }
+
+    this.append(bytes.toByteArray());
+  }
+
+  /**
+   * Waits until every change recorded so far is on the disk. This must not be called while
+   * holding the model's lock, so that other changes can be recorded in the meantime and be
+   * covered by the same force.
+   * @throws IllegalStateException if the journal cannot be forced to the disk
+   */
+  public void awaitDurable() {
+    long position;
+    synchronized (this) {
+      position = this.writtenPosition;
+    }
+
+    this.force(position);
+  }
+
+  /**
+   * Writes a record to the end of the journal, without waiting for it to reach the disk.
+   * @param contents the contents of the record
+   * @return the position right after the record
+   */
+  private synchronized long append(byte[] contents) {
+    CRC32 checksum = new CRC32();
+    checksum.update(contents);
+
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + contents.length);
+    record.putInt(contents.length).putInt((int) checksum.getValue()).put(contents).flip();
+
+    try {
+      while (record.hasRemaining()) {
+        this.channel.write(record, this.writtenPosition + record.position());
+      }
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in writing to the journal");
+    }
+
+    this.writtenPosition += record.limit();
+    return this.writtenPosition;
+  }
+
+  /**
+   * Waits until everything up to the given position is on the disk. If another thread's
+   * force already covered it, we do not force the disk again.
+   * @param position the position right after the record we need on the disk
+   */
+  private void force(long position) {
+    synchronized (this.forceLock) {
+      if (this.durablePosition >= position) {
+        return;
+      }
+
+      long target;
+      synchronized (this) {
+        target = this.writtenPosition;
+      }
+
+      try {
+        this.channel.force(false);
+      } catch (IOException ex) {
+        throw new IllegalStateException("Error in writing to the journal");
+      }
+
+      this.durablePosition = target;
+    }
+  }
+
+  private static void writeEvents(List<Event> events, DataOutputStream record)
+          throws IOException {
+    record.writeInt(events.size());
+
+    for (Event event : events) {
+      writeEvent(event, record);
+    }
+  }
+
+  private static List<Event> readEvents(DataInputStream record) throws IOException {
+    int count = record.readInt();
+    List<Event> events = new ArrayList<>();
+
+    for (int event = 0; event < count; event++) {
+      events.add(readEvent(record));
+    }
+
+    return events;
+  }
+
+  private static void writeEvent(Event event, DataOutputStream record) throws IOException {
+    record.writeUTF(event.getName());
+    record.writeUTF(event.getLocation());
+    record.writeBoolean(event.getOnline());
+    record.writeShort(event.getStartDate().getMinuteOfWeek());
+    record.writeShort(event.getEndDate().getMinuteOfWeek());
+    writeStrings(event.getInvitedUsers(), record);
+  }
+
+  private static Event readEvent(DataInputStream record) throws IOException {
+    String name = record.readUTF();
+    String location = record.readUTF();
+    boolean online = record.readBoolean();
+    Date start = Date.ofMinuteOfWeek(record.readShort());
+    Date end = Date.ofMinuteOfWeek(record.readShort());
+    return new Event(name, location, online, start, end, readStrings(record));
+  }
+
+  private static void writeStrings(List<String> strings, DataOutputStream record)
+          throws IOException {
+    record.writeInt(strings.size());
+
+    for (String string : strings) {
+      record.writeUTF(string);
+    }
+  }
+
+  private static ArrayList<String> readStrings(DataInputStream record) throws IOException {
+    int count = record.readInt();
+    ArrayList<String> strings = new ArrayList<>(count);
+
+    for (int string = 0; string < count; string++) {
+      strings.add(record.readUTF());
+    }
+
+    return strings;
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException ex) {
+      // we are already reporting why the journal could not be opened
+    }
+  }
+}
@@ -0,0 +1,435 @@
+package helpers;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Date;
+import model.Event;
+import model.EventKey;
+import model.User;
+
+/**
+ * Represents a compact binary snapshot of every user in the system and their schedules,
+ * which is much faster to load than reading each user's XML file again. XML remains the
+ * format for sharing schedules; the snapshot only exists so that starting up does not have
+ * to parse text.
+ * Every string (user ids, event names, locations and invitees) is written once to a string
+ * table and referred to by its index from then on. Every event is also written once, even
+ * when it appears in several users' schedules, and users refer to their events by index.
+ * Reading the snapshot back therefore gives every user holding an event the very same Event,
+ * and every occurrence of a string the very same String. All numbers are 4-byte big-endian
+ * ints, and a snapshot is laid out as follows:
+ * - header: magic number, format version, the id of the snapshot (an 8-byte long), and the
+ *   number of strings, events and users
+ * - strings: for each string, its length in bytes followed by its UTF-8 bytes
+ * - event offsets: for each event, the position in the file where its record starts, which
+ *   lets a single event be found without going through the ones before it
+ * - events: for each event, the indexes of its name and location, 1 if it is online and 0
+ *   otherwise, its start and end as minutes of the week, its number of invitees, and the
+ *   indexes of the invitees
+ * - users: for each user, the index of their id, their number of events, and the indexes of
+ *   their events
+ * Snapshots are written to a temporary file first and then moved into place, just like the
+ * XML files written by FileHelper. They are read back by mapping the file into memory and
+ * decoding each user's schedule only once it is needed. The keys of the events each user holds
+ * (their names and hosts) only take the string table to find, so those are read right away.
+ */
+public class Snapshot {
+  static final int MAGIC = 0x4E555053; // "NUPS"
+  static final int VERSION = 2;
+  static final int HEADER_SIZE = 5 * Integer.BYTES + Long.BYTES;
+  // where the number of strings is found, right after the magic number, version and id
+  private static final int COUNTS_START = 2 * Integer.BYTES + Long.BYTES;
+  // the fixed part of an event record, which is followed by one int per invitee
+  static final int EVENT_RECORD_SIZE = 6 * Integer.BYTES;
+
+  private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+  /**
+   * Writes a snapshot of the given users and their schedules.
+   * @param users the users to be written, in the order they should be read back in
+   * @param fileName name of the file to be written to
+   * @param id identifies this particular snapshot, so that whatever builds on top of it (see
+   *           MutationJournal) can tell whether it was built on this snapshot or another one
+   */
+  public static void write(List<User> users, String fileName, long id) {
+    if (users == null || fileName == null) {
+      throw new IllegalArgumentException("Users and fileName must not be null.");
+    }
+
+    // number every distinct string and every distinct event in the order we first see them
+    Map<String, Integer> stringIndexes = new LinkedHashMap<>();
+    Map<Event, Integer> eventIndexes = new IdentityHashMap<>();
+    List<Event> events = new ArrayList<>();
+
+    for (User user : users) {
+      indexOf(user.getUserId(), stringIndexes);
+
+      for (Event event : user.getEvents()) {
+        if (!eventIndexes.containsKey(event)) {
+          eventIndexes.put(event, events.size());
+          events.add(event);
+          indexOf(event.getName(), stringIndexes);
+          indexOf(event.getLocation(), stringIndexes);
+          event.getInvitedUsers().forEach(invitee -> indexOf(invitee, stringIndexes));
+        }
+      }
+    }
+
+    List<byte[]> strings = new ArrayList<>(stringIndexes.size());
+    int eventsStart = HEADER_SIZE;
+    for (String string : stringIndexes.keySet()) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      strings.add(bytes);
+      eventsStart += Integer.BYTES + bytes.length;
+    }
+    eventsStart += events.size() * Integer.BYTES;
+
+    Path target = Paths.get(fileName).toAbsolutePath();
+    Path temp = null;
+
+    try {
+      temp = FileHelper.createTempSibling(target);
+
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        ChannelOutput out = new ChannelOutput(channel);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putLong(id);
+        out.putInt(strings.size());
+        out.putInt(events.size());
+        out.putInt(users.size());
+
+        for (byte[] bytes : strings) {
+          out.putInt(bytes.length);
+          out.putBytes(bytes);
+        }
+
+        int offset = eventsStart;
+        for (Event event : events) {
+          out.putInt(offset);
+          offset += EVENT_RECORD_SIZE + event.getInvitedUsers().size() * Integer.BYTES;
+        }
+
+        for (Event event : events) {
+          out.putInt(stringIndexes.get(event.getName()));
+          out.putInt(stringIndexes.get(event.getLocation()));
+          out.putInt(event.getOnline() ? 1 : 0);
+          out.putInt(event.getStartDate().getMinuteOfWeek());
+          out.putInt(event.getEndDate().getMinuteOfWeek());
+          out.putInt(event.getInvitedUsers().size());
+
+          for (String invitee : event.getInvitedUsers()) {
+            out.putInt(stringIndexes.get(invitee));
+          }
+        }
+
+        for (User user : users) {
+          List<Event> userEvents = user.getEvents();
+          out.putInt(stringIndexes.get(user.getUserId()));
+          out.putInt(userEvents.size());
+
+          for (Event event : userEvents) {
+            out.putInt(eventIndexes.get(event));
+          }
+        }
+
+        out.flush();
+        channel.force(true);
+      }
+
+      FileHelper.moveIntoPlace(temp, target);
+    } catch (IOException ex) {
+      FileHelper.deleteQuietly(temp);
+      throw new RuntimeException(ex.getMessage());
+    }
+  }
+
+  /**
+   * Reads back every user from a snapshot. The file is mapped into memory rather than read,
+   * and only the user ids are decoded right away: each user's schedule is decoded the first
+   * time it is needed (see User's lazy constructor), so users that are never looked at cost
+   * next to nothing. Events are decoded at most once, so users sharing an event still share
+   * the very same Event.
+   * @param fileName name of the snapshot file
+   * @return the users, in the order they were written
+   * @throws IllegalStateException if the file cannot be read or is not a valid snapshot
+   */
+  public static List<User> read(String fileName) {
+    if (fileName == null) {
+      throw new IllegalArgumentException("fileName must not be null.");
+    }
+
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in opening the file");
+    }
+
+    try {
+      return new MappedSnapshot(buffer).readUsers();
+    } catch (BufferUnderflowException | IndexOutOfBoundsException
+            | NegativeArraySizeException ex) {
+      throw new IllegalStateException("Snapshot is corrupted.");
+    }
+  }
+
+  private static void indexOf(String string, Map<String, Integer> stringIndexes) {
+    stringIndexes.putIfAbsent(string, stringIndexes.size());
+  }
+
+  /**
+   * Reads the id a snapshot was written with, without reading anything else.
+   * @param fileName name of the snapshot file
+   * @return the id of the snapshot
+   * @throws IllegalStateException if the file cannot be read or is not a valid snapshot
+   */
+  public static long readId(String fileName) {
+    if (fileName == null) {
+      throw new IllegalArgumentException("fileName must not be null.");
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+      int read = 0;
+      while (header.hasRemaining() && read >= 0) {
+        read = channel.read(header);
+      }
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in opening the file");
+    }
+
+    header.flip();
+    checkHeader(header);
+    return header.getLong(2 * Integer.BYTES);
+  }
+
+  /**
+   * Checks that the buffer starts with the header of a snapshot this class knows how to read.
+   * @param buffer the snapshot
+   * @throws IllegalStateException if the buffer does not hold a supported snapshot
+   */
+  private static void checkHeader(ByteBuffer buffer) {
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IllegalStateException("File is not a NUPlanner snapshot.");
+    } else if (buffer.getInt(Integer.BYTES) != VERSION) {
+      throw new IllegalStateException("Unsupported snapshot version.");
+    }
+  }
+
+  /**
+   * Represents a snapshot that has been mapped into memory, which decodes strings and events
+   * only when they are asked for, and remembers them once decoded. Everything is read with
+   * absolute positions, so decoding one user never disturbs decoding another.
+   */
+  private static class MappedSnapshot {
+    private final ByteBuffer buffer;
+    private final int[] stringOffsets;
+    private final String[] strings;
+    private final int eventOffsetsStart;
+    private final Event[] events;
+    private final EventKey[] eventKeys;
+    private final int userCount;
+    private final int usersStart;
+
+    /**
+     * Finds where each part of the snapshot starts, without decoding anything.
+     * @param buffer the whole snapshot
+     * @throws IllegalStateException if the buffer does not hold a supported snapshot
+     */
+    MappedSnapshot(ByteBuffer buffer) {
+      checkHeader(buffer);
+      this.buffer = buffer;
+      this.stringOffsets = new int[buffer.getInt(COUNTS_START)];
+      this.strings = new String[this.stringOffsets.length];
+      this.events = new Event[buffer.getInt(COUNTS_START + Integer.BYTES)];
+      this.eventKeys = new EventKey[this.events.length];
+      this.userCount = buffer.getInt(COUNTS_START + 2 * Integer.BYTES);
+
+      int position = HEADER_SIZE;
+      for (int string = 0; string < this.stringOffsets.length; string++) {
+        this.stringOffsets[string] = position;
+        position += Integer.BYTES + buffer.getInt(position);
+      }
+
+      this.eventOffsetsStart = position;
+      int lastEvent = this.events.length - 1;
+      // the users come right after the last event record
+      this.usersStart = lastEvent < 0 ? position : this.eventEnd(lastEvent);
+    }
+
+    /**
+     * Creates every user in the snapshot, leaving their schedules to be decoded later. We do
+     * read the keys of the events each user holds, which only takes their names and hosts
+     * from the string table, so that the planner knows who holds what without decoding any
+     * schedule.
+     * @return the users, in the order they were written
+     */
+    List<User> readUsers() {
+      List<User> users = new ArrayList<>(this.userCount);
+      int position = this.usersStart;
+
+      for (int user = 0; user < this.userCount; user++) {
+        String userId = this.string(this.buffer.getInt(position));
+        int eventCount = this.buffer.getInt(position + Integer.BYTES);
+        int eventsStart = position + 2 * Integer.BYTES;
+        List<EventKey> heldEvents = new ArrayList<>(eventCount);
+
+        for (int event = 0; event < eventCount; event++) {
+          heldEvents.add(this.eventKey(this.buffer.getInt(eventsStart + event * Integer.BYTES)));
+        }
+
+        users.add(new User(userId, () -> this.readSchedule(eventsStart, eventCount),
+                heldEvents));
+        position = eventsStart + eventCount * Integer.BYTES;
+      }
+
+      return users;
+    }
+
+    private synchronized List<Event> readSchedule(int position, int eventCount) {
+      List<Event> schedule = new ArrayList<>(eventCount);
+
+      try {
+        for (int event = 0; event < eventCount; event++) {
+          schedule.add(this.event(this.buffer.getInt(position + event * Integer.BYTES)));
+        }
+      } catch (BufferUnderflowException | IndexOutOfBoundsException
+              | NegativeArraySizeException ex) {
+        throw new IllegalStateException("Snapshot is corrupted.");
+      }
+
+      return schedule;
+    }
+
+    private int eventStart(int event) {
+      return this.buffer.getInt(this.eventOffsetsStart + event * Integer.BYTES);
+    }
+
+    private int eventEnd(int event) {
+      int start = this.eventStart(event);
+      return start + EVENT_RECORD_SIZE + this.buffer.getInt(start + 5 * Integer.BYTES)
+              * Integer.BYTES;
+    }
+
+    private EventKey eventKey(int event) {
+      if (this.eventKeys[event] == null) {
+        int position = this.eventStart(event);
+
+        if (this.buffer.getInt(position + 5 * Integer.BYTES) == 0) {
+          throw new IllegalStateException("Snapshot is corrupted.");
+        }
+
+        String name = this.string(this.buffer.getInt(position));
+        String host = this.string(this.buffer.getInt(position + EVENT_RECORD_SIZE));
+        this.eventKeys[event] = new EventKey(host, name);
+      }
+
+      return this.eventKeys[event];
+    }
+
+    private Event event(int event) {
+      if (this.events[event] == null) {
+        int position = this.eventStart(event);
+        String name = this.string(this.buffer.getInt(position));
+        String location = this.string(this.buffer.getInt(position + Integer.BYTES));
+        boolean online = this.buffer.getInt(position + 2 * Integer.BYTES) != 0;
+        Date start = Date.ofMinuteOfWeek(this.buffer.getInt(position + 3 * Integer.BYTES));
+        Date end = Date.ofMinuteOfWeek(this.buffer.getInt(position + 4 * Integer.BYTES));
+        int inviteeCount = this.buffer.getInt(position + 5 * Integer.BYTES);
+        ArrayList<String> invitees = new ArrayList<>(inviteeCount);
+
+        for (int invitee = 0; invitee < inviteeCount; invitee++) {
+          invitees.add(this.string(this.buffer.getInt(position + EVENT_RECORD_SIZE
+                  + invitee * Integer.BYTES)));
+        }
+
+        this.events[event] = new Event(name, location, online, start, end, invitees);
+      }
+
+      return this.events[event];
+    }
+
+    private String string(int string) {
+      if (this.strings[string] == null) {
+        int position = this.stringOffsets[string];
+        byte[] bytes = new byte[this.buffer.getInt(position)];
+        // a duplicate shares the bytes but has its own position, so moving it is harmless
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(position + Integer.BYTES);
+        view.get(bytes);
+
+        this.strings[string] = new String(bytes, StandardCharsets.UTF_8);
+      }
+
+      return this.strings[string];
+    }
+  }
+
+  /**
+   * Represents a buffer in front of a file channel, so that the many small ints making up a
+   * snapshot reach the disk in large writes.
+   */
+  private static class ChannelOutput {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    ChannelOutput(FileChannel channel) {
+      this.channel = channel;
+      this.buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    }
+
+    void putInt(int value) throws IOException {
+      if (this.buffer.remaining() < Integer.BYTES) {
+        this.flush();
+      }
+
+      this.buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+      if (this.buffer.remaining() < Long.BYTES) {
+        this.flush();
+      }
+
+      this.buffer.putLong(value);
+    }
+
+    void putBytes(byte[] bytes) throws IOException {
+      int written = 0;
+
+      while (written < bytes.length) {
+        if (!this.buffer.hasRemaining()) {
+          this.flush();
+        }
+
+        int length = Math.min(this.buffer.remaining(), bytes.length - written);
+        this.buffer.put(bytes, written, length);
+        written += length;
+      }
+    }
+
+    void flush() throws IOException {
+      this.buffer.flip();
+
+      while (this.buffer.hasRemaining()) {
+        this.channel.write(this.buffer);
+      }
+
+      this.buffer.clear();
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package helpers;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import model.Date;
+import model.Day;
+import model.Event;
+
+/**
+ * Represents a streaming reader of a user's schedule from an XML file. Unlike
+ * FileHelper.createXMlDoc(), which builds the whole document tree in memory before
+ * handing anything back, this reads the file from front to back a single time and turns each
+ * event tag into an Event as soon as it has been read. Only one event is held in memory at a
+ * time, no matter how large the file is.
+ * The reader must be closed once we are done with it, which is easiest with
+ * try-with-resources:
+ * try (XMLScheduleReader reader = new XMLScheduleReader("bobby.xml")) {
+ *   while (reader.hasNextEvent()) {
+ *     Event event = reader.nextEvent();
+ *   }
+ * }
+ */
+public class XMLScheduleReader implements AutoCloseable {
+  private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+
+  private final InputStream input;
+  private final XMLStreamReader reader;
+  private final String userId;
+
+  // true when the reader is sitting on the start of an event tag that has not been read yet
+  private boolean hasPendingEvent;
+  // true once we have reached the end of the schedule tag
+  private boolean finished;
+  // collects the invitees of the event being read; reused from one event to the next, so
+  // the only thing left behind for each event is the array they are copied into
+  private final ArrayList<String> invitedUsers;
+
+  /**
+   * Opens an XML file and reads the user id from its schedule tag, (ex: schedule id="Prof.
+   * Lucia" where the id is "Prof. Lucia"). None of the events are read yet.
+   * @param fileName name of the file to be read
+   * @throws IllegalStateException if the file cannot be opened, or is not a schedule
+   */
+  public XMLScheduleReader(String fileName) {
+    if (fileName == null) {
+      throw new IllegalArgumentException("fileName must not be null.");
+    }
+
+    try {
+      this.input = new BufferedInputStream(new FileInputStream(fileName));
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in opening the file");
+    }
+
+    try {
+      this.reader = FACTORY.createXMLStreamReader(this.input);
+      this.reader.nextTag();
+
+      if (!this.reader.getLocalName().equals("schedule")) {
+        throw new IllegalStateException("File does not contain a schedule.");
+      }
+
+      this.userId = this.reader.getAttributeValue(null, "id");
+    } catch (XMLStreamException ex) {
+      this.closeInput();
+      throw new IllegalStateException("Error in parsing the file");
+    } catch (IllegalStateException ex) {
+      this.closeInput();
+      throw ex;
+    }
+
+    if (this.userId == null) {
+      this.closeInput();
+      throw new IllegalStateException("Schedule must have an id.");
+    }
+
+    this.invitedUsers = new ArrayList<>();
+  }
+
+  /**
+   * Retrieves the id of the user the schedule belongs to.
+   * @return the user id
+   */
+  public String getUserId() {
+    return this.userId;
+  }
+
+  /**
+   * Checks to see whether there are any events left in the file.
+   * @return true if another event can be read; false otherwise
+   * @throws IllegalStateException if the file is not valid XML
+   */
+  public boolean hasNextEvent() {
+    try {
+      while (!this.hasPendingEvent && !this.finished) {
+        if (this.reader.nextTag() == XMLStreamConstants.END_ELEMENT) {
+          this.finished = true;
+        } else if (this.reader.getLocalName().equals("event")) {
+          this.hasPendingEvent = true;
+        } else {
+          this.skipElement();
+        }
+      }
+    } catch (XMLStreamException ex) {
+      throw new IllegalStateException("Error in parsing the file");
+    }
+
+    return this.hasPendingEvent;
+  }
+
+  /**
+   * Reads the next event in the file. Tags we do not recognize inside an event are skipped.
+   * @return the event
+   * @throws IllegalStateException if there are no events left, if the file is not valid XML,
+   *                               or if the event is missing any of its content
+   * @throws IllegalArgumentException if the content of the event does not make a valid event
+   */
+  public Event nextEvent() {
+    return this.nextRecord().toEvent();
+  }
+
+  /**
+   * Reads the next event in the file as a record, without checking whether it makes a valid
+   * event. Tags we do not recognize inside an event are skipped. The location and the ids of
+   * the invitees are interned, since the same few of them show up again and again across
+   * events and files.
+   * @return the record of the event
+   * @throws IllegalStateException if there are no events left, if the file is not valid XML,
+   *                               or if the event is missing any of its content
+   * @throws IllegalArgumentException if a day or time in the event is not valid
+   */
+  public EventRecord nextRecord() {
+    if (!this.hasNextEvent()) {
+      throw new IllegalStateException("No events left to read.");
+    }
+
+    this.hasPendingEvent = false;
+
+    String name = null;
+    String startDay = null;
+    String startTime = null;
+    String endDay = null;
+    String endTime = null;
+    String online = null;
+    String place = null;
+    this.invitedUsers.clear();
+
+    try {
+      // how many of the <time>, <location> and <users> tags we are currently inside of. Their
+      // contents all have different tag names, so we do not need to track which one it is
+      int depth = 0;
+
+      while (true) {
+        if (this.reader.nextTag() == XMLStreamConstants.END_ELEMENT) {
+          if (depth == 0) {
+            break;
+          }
+
+          depth--;
+          continue;
+        }
+
+        switch (this.reader.getLocalName()) {
+          case "time":
+          case "location":
+          case "users":
+            depth++;
+            break;
+          case "name":
+            name = this.reader.getElementText();
+            break;
+          case "start-day":
+            startDay = this.reader.getElementText();
+            break;
+          case "start":
+            startTime = this.reader.getElementText();
+            break;
+          case "end-day":
+            endDay = this.reader.getElementText();
+            break;
+          case "end":
+            endTime = this.reader.getElementText();
+            break;
+          case "online":
+            online = this.reader.getElementText();
+            break;
+          case "place":
+            place = this.reader.getElementText();
+            break;
+          case "uid":
+            this.invitedUsers.add(this.reader.getElementText().intern());
+            break;
+          default:
+            this.skipElement();
+        }
+      }
+    } catch (XMLStreamException ex) {
+      throw new IllegalStateException("Error in parsing the file");
+    }
+
+    if (name == null || startDay == null || startTime == null || endDay == null
+            || endTime == null || online == null || place == null) {
+      throw new IllegalStateException("Event is missing some of its content.");
+    }
+
+    return new EventRecord(name, place.intern(), Boolean.parseBoolean(online),
+            Date.of(Day.valueOf(startDay), startTime).getMinuteOfWeek(),
+            Date.of(Day.valueOf(endDay), endTime).getMinuteOfWeek(),
+            this.invitedUsers.toArray(new String[0]));
+  }
+
+  /**
+   * Skips over the element the reader is sitting on, along with everything inside it.
+   */
+  private void skipElement() throws XMLStreamException {
+    int depth = 1;
+
+    while (depth > 0) {
+      int type = this.reader.next();
+
+      if (type == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (type == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  private void closeInput() {
+    try {
+      this.input.close();
+    } catch (IOException ex) {
+      // nothing was read from the file yet, so there is nothing to lose
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      this.reader.close();
+      this.input.close();
+    } catch (XMLStreamException | IOException ex) {
+      throw new IllegalStateException("Error in closing the file");
+    }
+  }
+}
@@ -6,8 +6,35 @@ package model;
  * starting with an uppercase character. Time is in the army time format "0000"
  */
 public class Date implements DateModel {
+  public static final int MINUTES_IN_DAY = 24 * 60;
+  public static final int MINUTES_IN_WEEK = 7 * MINUTES_IN_DAY;
+
+  // every time of day in the format "0000", indexed by the total minutes of that time.
+  // getTime() reads from here, so we never have to format a time on demand
+  private static final String[] TIMES = new String[MINUTES_IN_DAY];
+
+  static {
+    for (int minutes = 0; minutes < MINUTES_IN_DAY; minutes++) {
+      TIMES[minutes] = String.format("%02d%02d", minutes / 60, minutes % 60);
+    }
+  }
+
+  // one date for every minute of the week, indexed by minute of the week. Dates never change,
+  // so Date.of() hands out the same instance to everyone asking for the same moment
+  private static final Date[] DATES = new Date[MINUTES_IN_WEEK];
+
+  static {
+    for (Day day : Day.values()) {
+      for (int minutes = 0; minutes < MINUTES_IN_DAY; minutes++) {
+        DATES[day.ordinal() * MINUTES_IN_DAY + minutes] = new Date(day, minutes);
+      }
+    }
+  }
+
   private final Day day;
-  private final String time;
+  // minutes since Sunday at 0000, i.e. the day's ordinal * 1440 + the total minutes of the time.
+  // This is the only representation of the time that we store; getTime() is derived from it
+  private final int minuteOfWeek;
 
   /**
    * Creates a new date object with a day and time.
@@ -17,12 +44,81 @@ public class Date implements DateModel {
   public Date(Day day, String time) {
     if (day == null || time == null) {
       throw new IllegalArgumentException("Day and time cannot be null.");
-    } else if (!this.isDateValid(time)) {
+    }
+
+    int totalMinutes = parseTotalMinutes(time);
+
+    if (totalMinutes == -1) {
       throw new IllegalArgumentException("Invalid time.");
     }
 
     this.day = day;
-    this.time = time;
+    this.minuteOfWeek = day.ordinal() * MINUTES_IN_DAY + totalMinutes;
+  }
+
+  /**
+   * Creates the date for a day and a valid number of minutes into that day. Only used to fill
+   * up the table of dates that Date.of() hands out.
+   * @param day enum representing the day of the date, monday-sunday
+   * @param totalMinutes minutes since the start of the day, from 0 to 1439
+   */
+  private Date(Day day, int totalMinutes) {
+    this.day = day;
+    this.minuteOfWeek = day.ordinal() * MINUTES_IN_DAY + totalMinutes;
+  }
+
+  /**
+   * Retrieves the date for a day and a number of minutes into that day. Unlike the
+   * constructor, this never creates a new object; every date is shared.
+   * @param day enum representing the day of the date, monday-sunday
+   * @param totalMinutes minutes since the start of the day, from 0 to 1439
+   * @return the date representing that moment
+   * @throws IllegalArgumentException if day is null or totalMinutes is not within a day
+   */
+  public static Date of(Day day, int totalMinutes) {
+    if (day == null) {
+      throw new IllegalArgumentException("Day cannot be null.");
+    } else if (totalMinutes < 0 || totalMinutes >= MINUTES_IN_DAY) {
+      throw new IllegalArgumentException("Invalid time.");
+    }
+
+    return DATES[day.ordinal() * MINUTES_IN_DAY + totalMinutes];
+  }
+
+  /**
+   * Retrieves the date for a day and a time. Unlike the constructor, this never
+   * creates a new object; every date is shared.
+   * @param day  enum representing the day of the date, monday-sunday
+   * @param time the time of day, in the format "0000"
+   * @return the date representing that moment
+   * @throws IllegalArgumentException if day or time are null, or if time is invalid
+   */
+  public static Date of(Day day, String time) {
+    if (day == null || time == null) {
+      throw new IllegalArgumentException("Day and time cannot be null.");
+    }
+
+    int totalMinutes = parseTotalMinutes(time);
+
+    if (totalMinutes == -1) {
+      throw new IllegalArgumentException("Invalid time.");
+    }
+
+    return DATES[day.ordinal() * MINUTES_IN_DAY + totalMinutes];
+  }
+
+  /**
+   * Retrieves the date for a minute of the week, counting from Sunday at 0000.
+   * @param minuteOfWeek minutes since the start of the week, from 0 to 10079
+   * @return the date representing that moment
+   * @throws IllegalArgumentException if minuteOfWeek is not within a week
+   */
+  public static Date ofMinuteOfWeek(int minuteOfWeek) {
+    if (minuteOfWeek < 0 || minuteOfWeek >= MINUTES_IN_WEEK) {
+      throw new IllegalArgumentException("Invalid minute of the week.");
+    }
+
+    return DATES[minuteOfWeek];
   }
 
   @Override
@@ -32,40 +128,50 @@ public class Date implements DateModel {
 
   @Override
   public String getTime() {
-    return this.time;
+    return TIMES[this.getTotalMinutes()];
   }
 
   @Override
   public int getTotalMinutes() {
-    int hours = Integer.parseInt(this.time.substring(0, 2));
-    int minutes = Integer.parseInt(this.time.substring(2, 4));
-    return (hours * 60) + minutes;
+    return this.minuteOfWeek % MINUTES_IN_DAY;
+  }
+
+  @Override
+  public int getMinuteOfWeek() {
+    return this.minuteOfWeek;
   }
 
   /**
-   * Checks to see whether a time is valid. In order for a time to be valid,
+   * Checks to see whether a time is valid and converts it into its total minutes.
+   * In order for a time to be valid,
    * it must have 4 characters and be in the format "0000", where the first two zeroes
    * represent the hours and the second set of zeroes represent the minutes. A time is
    * valid if it is considered to be in army time, where the hours do not exceed 23 and
    * fall below 0. It goes without saying that minutes should not exceed 59 either nor
    * fall below 0.
    * @param time time we are validating
-   * @return true or false depending on whether day and time are valid
+   * @return the total minutes of the time if it is valid; -1 otherwise
    */
-  private boolean isDateValid(String time) {
+  private static int parseTotalMinutes(String time) {
     if (time.length() != 4) {
-      return false;
+      return -1;
     }
 
-    try {
-      int hours = Integer.parseInt(time.substring(0, 2));
-      int minutes = Integer.parseInt(time.substring(2, 4));
+    // reading the digits directly means we do not create substrings for every time we parse
+    for (int i = 0; i < 4; i++) {
+      if (time.charAt(i) < '0' || time.charAt(i) > '9') {
+        return -1;
+      }
+    }
+
+    int hours = (time.charAt(0) - '0') * 10 + (time.charAt(1) - '0');
+    int minutes = (time.charAt(2) - '0') * 10 + (time.charAt(3) - '0');
 
-      return minutes >= 0 && minutes <= 59
-              && hours >= 0 && hours <= 23;
-    } catch (NumberFormatException ex) {
-      return false;
+    if (minutes <= 59 && hours <= 23) {
+      return (hours * 60) + minutes;
     }
+
+    return -1;
   }
 
   /**
@@ -25,4 +25,11 @@ public interface DateModel {
    * @return total minutes of a date
    */
   int getTotalMinutes();
+
+  /**
+   * Returns the minute of the week that a date falls on, counting from Sunday at 0000.
+   * Example: Monday "0130" will return (1 * 1440) + 90.
+   * @return minutes since the start of the week
+   */
+  int getMinuteOfWeek();
 }
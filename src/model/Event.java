@@ -21,6 +21,10 @@ public class Event implements EventModel {
   private final Date startDate;
   private final Date endDate;
   private final List<String> invitedUsers;
+  // the minutes of the week this event occupies, [startMinute, endMinute). We compute these
+  // once so that conflict checks and sorting only ever compare ints
+  private final int startMinute;
+  private final int endMinute;
 
   /**
    * Creates a new event.
@@ -43,8 +47,7 @@ public class Event implements EventModel {
     if (name == null || location == null || startDate == null || endDate == null) {
       throw new IllegalArgumentException("location, online, startDate, endDate, and "
               + "invited users must not be null");
-    } else if (startDate.getTotalMinutes() == endDate.getTotalMinutes()
-            && startDate.getDay().equals(endDate.getDay())) {
+    } else if (startDate.getMinuteOfWeek() == endDate.getMinuteOfWeek()) {
       throw new IllegalArgumentException("Start time and end time cannot be equal when "
               + "days are the same!");
     } else if (location.trim().equals("") || name.trim().equals("")) {
@@ -63,6 +66,10 @@ public class Event implements EventModel {
     this.startDate = startDate;
     this.endDate = endDate;
     this.invitedUsers = invitedUsers;
+    this.startMinute = startDate.getMinuteOfWeek();
+    // an event that ends at or before the moment it starts in the week ends during next week
+    this.endMinute = endDate.getMinuteOfWeek() > this.startMinute
+            ? endDate.getMinuteOfWeek() : endDate.getMinuteOfWeek() + Date.MINUTES_IN_WEEK;
   }
 
   @Override
@@ -95,12 +102,22 @@ public class Event implements EventModel {
     return (ArrayList<String>) this.invitedUsers;
   }
 
+  @Override
+  public int getStartMinuteOfWeek() {
+    return this.startMinute;
+  }
+
+  @Override
+  public int getEndMinuteOfWeek() {
+    return this.endMinute;
+  }
+
   @Override
   public boolean isConflictingTimeSameDay(Event event) {
-    int thisEndTime = Integer.parseInt(this.endDate.getTime());
-    int eventStartTime = Integer.parseInt(event.startDate.getTime());
-    int thisStartTime = Integer.parseInt(this.startDate.getTime());
-    int eventEndTime = Integer.parseInt(event.endDate.getTime());
+    int thisEndTime = this.endDate.getTotalMinutes();
+    int eventStartTime = event.startDate.getTotalMinutes();
+    int thisStartTime = this.startDate.getTotalMinutes();
+    int eventEndTime = event.endDate.getTotalMinutes();
     return thisEndTime > eventStartTime && eventEndTime > thisStartTime;
   }
 
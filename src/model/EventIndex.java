@@ -0,0 +1,84 @@
+package model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents a reverse index from an event to the users whose schedules currently hold it.
+ * Events are identified by their EventKey (their host and name), so a change to one user's
+ * "Lunch" only touches the schedules holding that same "Lunch", and not the unrelated events
+ * other users happen to have given the same name. This tells the model exactly which schedules
+ * a change to an event touches, without going through every user in the system.
+ * Going the other way, from a user to the events they hold, is simply that user's schedule.
+ * Schedules that have been attached to the index keep it up to date whenever an event is
+ * added to or removed from them.
+ */
+class EventIndex {
+  private final Map<EventKey, Set<String>> holdersByEvent;
+
+  /**
+   * Creates an empty index.
+   */
+  EventIndex() {
+    this.holdersByEvent = new HashMap<>();
+  }
+
+  /**
+   * Records that a user's schedule now holds an event.
+   * @param userId id of the user whose schedule holds the event
+   * @param event the event
+   */
+  void eventAdded(String userId, Event event) {
+    this.eventAdded(userId, EventKey.of(event));
+  }
+
+  /**
+   * Records that a user's schedule now holds the event with the given key, or will hold it
+   * once the schedule is built. Recording the same event for the same user again changes
+   * nothing.
+   * @param userId id of the user whose schedule holds the event
+   * @param key the key of the event
+   */
+  void eventAdded(String userId, EventKey key) {
+    this.holdersByEvent.computeIfAbsent(key, newKey -> new LinkedHashSet<>()).add(userId);
+  }
+
+  /**
+   * Records that a user's schedule no longer holds an event.
+   * @param userId id of the user whose schedule held the event
+   * @param event the event
+   */
+  void eventRemoved(String userId, Event event) {
+    this.eventRemoved(userId, EventKey.of(event));
+  }
+
+  /**
+   * Records that a user's schedule no longer holds the event with the given key.
+   * @param userId id of the user whose schedule held the event
+   * @param key the key of the event
+   */
+  void eventRemoved(String userId, EventKey key) {
+    Set<String> holders = this.holdersByEvent.get(key);
+
+    if (holders != null) {
+      holders.remove(userId);
+
+      if (holders.isEmpty()) {
+        this.holdersByEvent.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Retrieves the ids of the users whose schedules hold an event, in the order in which they
+   * received it. The returned set must not be modified.
+   * @param key the key of the event
+   * @return ids of the users holding the event
+   */
+  Set<String> holdersOf(EventKey key) {
+    return this.holdersByEvent.getOrDefault(key, Collections.emptySet());
+  }
+}
@@ -0,0 +1,379 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Represents an interval tree over the events in a single schedule, which also serves as the
+ * schedule's storage of its events in starting date order. Every event is stored as the
+ * half-open range of minutes [start, end) that it occupies, where minute 0 is Sunday at
+ * 0000. An event whose end comes before its start in the week (i.e. Friday 1800 -> Sunday
+ * 1200 of the following week) continues into the next week, so we store its end past the
+ * 10080 minutes of a single week instead of wrapping it back around to Sunday. Comparing
+ * ranges then misses where such an event runs into the start of this week, which schedules
+ * have always judged by comparing the days of the week and times of day events start and
+ * end on. conflictsAcrossWeeks() does that for the few events it concerns.
+ * The tree is kept balanced (AVL) and every node remembers the largest end found in its
+ * subtree, which lets us decide whether a range overlaps any event in O(log n) time.
+ */
+class EventIntervalTree {
+  /**
+   * Represents a single event in the tree, along with the bookkeeping needed to keep the
+   * tree balanced and to prune overlap searches.
+   */
+  private static class Node {
+    final Event event;
+    final int start;
+    final int end;
+    int maxEnd;
+    int height;
+    Node left;
+    Node right;
+
+    /**
+     * Creates a leaf node for an event occupying [start, end).
+     * @param event the event being stored
+     * @param start minute of the week the event starts on
+     * @param end minute the event ends on (may be past the end of this week)
+     */
+    Node(Event event, int start, int end) {
+      this.event = event;
+      this.start = start;
+      this.end = end;
+      this.maxEnd = end;
+      this.height = 1;
+    }
+  }
+
+  private Node root;
+  private int size;
+
+  /**
+   * Inserts an event into the tree.
+   * @param event event to be inserted
+   */
+  void insert(Event event) {
+    this.root = this.insert(this.root, new Node(event, event.getStartMinuteOfWeek(),
+        event.getEndMinuteOfWeek()));
+    this.size++;
+  }
+
+  /**
+   * Removes an event from the tree. If the event is not in the tree, nothing changes.
+   * @param event event to be removed
+   */
+  void remove(Event event) {
+    this.root = this.remove(this.root, event, event.getStartMinuteOfWeek());
+  }
+
+  /**
+   * Checks to see whether any event in the tree overlaps the range [start, end).
+   * Ranges that merely touch (one ends exactly when the other starts) do not overlap.
+   * @param start first minute of the range
+   * @param end minute right after the last minute of the range
+   * @return true if an overlapping event exists; false otherwise
+   */
+  boolean overlaps(int start, int end) {
+    Node node = this.root;
+
+    while (node != null) {
+      if (node.start < end && start < node.end) {
+        return true;
+      }
+
+      // if nothing on the left ends after our start, nothing on the left can overlap.
+      // Otherwise, if the left side has no overlap, then neither does the right side, as
+      // everything on the right starts even later than the interval that ends latest on the left
+      if (node.left != null && node.left.maxEnd > start) {
+        node = node.left;
+      } else {
+        node = node.right;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Checks to see whether an event overlaps any of the events in the tree.
+   * @param event event we are checking
+   * @return true if an overlapping event exists; false otherwise
+   */
+  boolean overlaps(Event event) {
+    return this.overlaps(event.getStartMinuteOfWeek(), event.getEndMinuteOfWeek());
+  }
+
+  /**
+   * Checks to see whether an event conflicts with an event in the tree in a way that comparing
+   * their ranges does not show, because one of them continues into the following week. An
+   * event continuing into the following week runs into the events starting on the day it
+   * ends on, before it ends, and an event starting on the day that an event in the tree
+   * continuing into the following week ends on, before it ends, runs into that event. Those
+   * are the only events we compare day by day (see conflictsByDay()), which comes to the
+   * same answer schedules have always given.
+   * @param event event we are checking
+   * @return true if such a conflict exists; false otherwise
+   */
+  boolean conflictsAcrossWeeks(Event event) {
+    int end = event.getEndMinuteOfWeek();
+
+    if (end > Date.MINUTES_IN_WEEK) {
+      int endInWeek = end - Date.MINUTES_IN_WEEK;
+
+      if (this.anyStartingWithin(this.root, startOfDay(endInWeek), endInWeek, event)) {
+        return true;
+      }
+    }
+
+    return this.anyEndingAfterStartOf(this.root, event);
+  }
+
+  /**
+   * Looks for an event starting in [from, to) that conflicts with the given event day by day.
+   */
+  private boolean anyStartingWithin(Node node, int from, int to, Event event) {
+    if (node == null) {
+      return false;
+    } else if (node.start < from) {
+      return this.anyStartingWithin(node.right, from, to, event);
+    } else if (node.start >= to) {
+      return this.anyStartingWithin(node.left, from, to, event);
+    }
+
+    return conflictsByDay(event, node.event)
+            || this.anyStartingWithin(node.left, from, to, event)
+            || this.anyStartingWithin(node.right, from, to, event);
+  }
+
+  /**
+   * Looks for an event continuing into the following week that ends on the day the given
+   * event starts on, after it starts, and that conflicts with it day by day.
+   */
+  private boolean anyEndingAfterStartOf(Node node, Event event) {
+    if (node == null || node.maxEnd <= Date.MINUTES_IN_WEEK) {
+      return false;
+    }
+
+    int start = event.getStartMinuteOfWeek();
+    int endInWeek = node.end - Date.MINUTES_IN_WEEK;
+
+    if (endInWeek > start && startOfDay(endInWeek) <= start
+            && conflictsByDay(event, node.event)) {
+      return true;
+    }
+
+    return this.anyEndingAfterStartOf(node.left, event)
+            || this.anyEndingAfterStartOf(node.right, event);
+  }
+
+  /**
+   * Decides whether two events conflict by comparing the days of the week and the times of
+   * day they start and end on, the way schedules always have. We only ask this about events
+   * whose ranges do not overlap and that share a day at one of their ends, so all that is
+   * left to compare are the times on that day.
+   */
+  private static boolean conflictsByDay(Event newEvent, Event existing) {
+    int newStart = newEvent.getStartMinuteOfWeek();
+    int newEnd = newEvent.getEndDate().getMinuteOfWeek();
+    int start = existing.getStartMinuteOfWeek();
+    int end = existing.getEndDate().getMinuteOfWeek();
+
+    if (day(newStart) == day(start) && day(newEnd) == day(end)) {
+      return time(newEnd) > time(start) && time(end) > time(newStart);
+    } else if (day(newStart) == day(end)) {
+      return time(newStart) < time(end);
+    }
+
+    return day(newEnd) == day(start) && time(newEnd) > time(start);
+  }
+
+  private static int day(int minuteOfWeek) {
+    return minuteOfWeek / Date.MINUTES_IN_DAY;
+  }
+
+  private static int time(int minuteOfWeek) {
+    return minuteOfWeek % Date.MINUTES_IN_DAY;
+  }
+
+  private static int startOfDay(int minuteOfWeek) {
+    return minuteOfWeek - time(minuteOfWeek);
+  }
+
+  /**
+   * Collects every event whose start and end surround the given minute, inclusive, or that
+   * surround the same minute of the following week. Events are collected in starting order.
+   * @param minute minute of the week, from 0 to 10079
+   * @param events list the matching events are added to
+   */
+  void collectOccurringAt(int minute, List<Event> events) {
+    this.collectOccurringAt(this.root, minute, events);
+  }
+
+  private void collectOccurringAt(Node node, int minute, List<Event> events) {
+    if (node == null || node.maxEnd < minute) {
+      return;
+    }
+
+    int nextWeekMinute = minute + Date.MINUTES_IN_WEEK;
+    this.collectOccurringAt(node.left, minute, events);
+
+    if ((node.start <= minute && minute <= node.end)
+            || (node.start <= nextWeekMinute && nextWeekMinute <= node.end)) {
+      events.add(node.event);
+    }
+
+    // everything on the right starts after this node, so once this node starts after the
+    // latest minute we are looking for, nothing on the right can surround it
+    if (node.start <= nextWeekMinute) {
+      this.collectOccurringAt(node.right, minute, events);
+    }
+  }
+
+  /**
+   * Retrieves every event in the tree, ordered by the minute they start on. Events starting
+   * on the same minute are ordered by name.
+   * @return list of events in starting date order
+   */
+  ArrayList<Event> inOrder() {
+    ArrayList<Event> events = new ArrayList<>(this.size);
+    Deque<Node> stack = new ArrayDeque<>();
+    Node node = this.root;
+
+    while (node != null || !stack.isEmpty()) {
+      while (node != null) {
+        stack.push(node);
+        node = node.left;
+      }
+
+      node = stack.pop();
+      events.add(node.event);
+      node = node.right;
+    }
+
+    return events;
+  }
+
+  /**
+   * Orders two events first by the minute they start on and then by their name, which is
+   * unique within a schedule.
+   */
+  private static int compare(int start, Event event, Node node) {
+    if (start != node.start) {
+      return Integer.compare(start, node.start);
+    }
+
+    return event.getName().compareTo(node.event.getName());
+  }
+
+  private Node insert(Node node, Node newNode) {
+    if (node == null) {
+      return newNode;
+    }
+
+    if (compare(newNode.start, newNode.event, node) < 0) {
+      node.left = this.insert(node.left, newNode);
+    } else {
+      node.right = this.insert(node.right, newNode);
+    }
+
+    return this.rebalance(node);
+  }
+
+  private Node remove(Node node, Event event, int start) {
+    if (node == null) {
+      return null;
+    }
+
+    int comparison = compare(start, event, node);
+
+    if (comparison < 0) {
+      node.left = this.remove(node.left, event, start);
+    } else if (comparison > 0) {
+      node.right = this.remove(node.right, event, start);
+    } else if (node.left == null) {
+      this.size--;
+      return node.right;
+    } else if (node.right == null) {
+      this.size--;
+      return node.left;
+    } else {
+      this.size--;
+
+      // replace the removed node with the smallest node on its right
+      Node successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+
+      successor.right = this.removeSmallest(node.right);
+      successor.left = node.left;
+      return this.rebalance(successor);
+    }
+
+    return this.rebalance(node);
+  }
+
+  private Node removeSmallest(Node node) {
+    if (node.left == null) {
+      return node.right;
+    }
+
+    node.left = this.removeSmallest(node.left);
+    return this.rebalance(node);
+  }
+
+  private static int height(Node node) {
+    return node == null ? 0 : node.height;
+  }
+
+  private static void update(Node node) {
+    node.height = 1 + Math.max(height(node.left), height(node.right));
+    node.maxEnd = node.end;
+
+    if (node.left != null) {
+      node.maxEnd = Math.max(node.maxEnd, node.left.maxEnd);
+    }
+    if (node.right != null) {
+      node.maxEnd = Math.max(node.maxEnd, node.right.maxEnd);
+    }
+  }
+
+  private Node rotateRight(Node node) {
+    Node newRoot = node.left;
+    node.left = newRoot.right;
+    newRoot.right = node;
+    update(node);
+    update(newRoot);
+    return newRoot;
+  }
+
+  private Node rotateLeft(Node node) {
+    Node newRoot = node.right;
+    node.right = newRoot.left;
+    newRoot.left = node;
+    update(node);
+    update(newRoot);
+    return newRoot;
+  }
+
+  private Node rebalance(Node node) {
+    update(node);
+    int balance = height(node.left) - height(node.right);
+
+    if (balance > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node.left = this.rotateLeft(node.left);
+      }
+      return this.rotateRight(node);
+    } else if (balance < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node.right = this.rotateRight(node.right);
+      }
+      return this.rotateLeft(node);
+    }
+
+    return node;
+  }
+}
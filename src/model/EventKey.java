@@ -0,0 +1,83 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Represents what identifies an event across schedules: the user hosting it (the first of its
+ * invited users) and its name. A host's schedule cannot hold two events with the same name, so
+ * no two different events share a key, while every copy of the same event does, whether it was
+ * added through the planner or read back from an XML file, a snapshot or the journal. Two
+ * users may each hold an unrelated event named "Lunch", but only if they host them
+ * themselves, which gives the two events different keys.
+ */
+public final class EventKey {
+  private final String host;
+  private final String name;
+
+  /**
+   * Creates the key of the event with the given host and name.
+   * @param host userId of the user hosting the event
+   * @param name name of the event
+   * @throws IllegalArgumentException if host or name is null
+   */
+  public EventKey(String host, String name) {
+    if (host == null || name == null) {
+      throw new IllegalArgumentException("host and name must not be null.");
+    }
+
+    this.host = host;
+    this.name = name;
+  }
+
+  /**
+   * Creates the key of an event.
+   * @param event the event, which must have at least 1 invited user
+   * @return the key of the event
+   * @throws IllegalArgumentException if the event has no invited users
+   */
+  public static EventKey of(Event event) {
+    if (event.getInvitedUsers().isEmpty()) {
+      throw new IllegalArgumentException("Event must have at least 1 invitee.");
+    }
+
+    return new EventKey(event.getInvitedUsers().get(0), event.getName());
+  }
+
+  /**
+   * Retrieves the userId of the user hosting the event.
+   * @return userId of the host
+   */
+  public String getHost() {
+    return this.host;
+  }
+
+  /**
+   * Retrieves the name of the event.
+   * @return name of the event
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    } else if (!(other instanceof EventKey)) {
+      return false;
+    }
+
+    EventKey key = (EventKey) other;
+    return this.host.equals(key.host) && this.name.equals(key.name);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.host, this.name);
+  }
+
+  @Override
+  public String toString() {
+    return this.name + " (hosted by " + this.host + ")";
+  }
+}
@@ -45,6 +45,21 @@ public interface EventModel {
    */
   ArrayList<String> getInvitedUsers();
 
+  /**
+   * Returns the minute of the week this event starts on, counting from Sunday at 0000.
+   * @return minutes since the start of the week
+   */
+  int getStartMinuteOfWeek();
+
+  /**
+   * Returns the minute of the week this event ends on, counting from Sunday at 0000. If the
+   * event ends at or before the moment it starts in the week, it ends during the following
+   * week, and the returned value is past the 10080 minutes of a single week. This value is
+   * always greater than getStartMinuteOfWeek().
+   * @return minutes since the start of the week this event starts in
+   */
+  int getEndMinuteOfWeek();
+
   /**
    * Determines whether there is a time conflict between this event
    * and another event when both occur on the same day. For instance,
@@ -1,9 +1,15 @@
 package model;
 
 import java.util.List;
+import java.util.Map;
 
 /**
- * Represents a mutable view of NUPlanner, providing mutator methods.
+ * Represents a mutable view of NUPlanner, providing mutator methods. The model is only ever
+ * changed on the GUI's thread, and each of these methods holds the model's lock
+ * (synchronized (model) { ... }) while it changes users. The GUI can therefore read the model
+ * without the lock, while any other thread (such as one saving the model, see saveAll()) must
+ * hold it. Changing a User the model handed out, rather than going through these methods,
+ * must be done while holding the same lock as well.
  */
 interface MutableNUPlannerModel {
   /**
@@ -19,6 +25,51 @@ interface MutableNUPlannerModel {
    */
   void uploadXMLFile(String fileName);
 
+  /**
+   * Uploads several XML files at once, each representing the schedule of a new user. The files
+   * are read in parallel, after which every user that was read successfully is added to the
+   * system, in the order the files were given. A file that cannot be uploaded (for any of the
+   * reasons uploadXMLFile() would fail) does not stop the rest of the files from being
+   * uploaded; instead, the reason it failed is reported back.
+   *
+   * @param fileNames names of XML files to be read
+   * @return the files that could not be uploaded, in the order they were given, mapped to
+   *         the reason why; empty if every file was uploaded
+   * @throws IllegalArgumentException if fileNames is null
+   */
+  Map<String, String> uploadXMLFiles(List<String> fileNames);
+
+  /**
+   * Brings a user's schedule up to date with a newer version of their XML file. Unlike
+   * uploadXMLFile(), the user may already exist, in which case only the difference is applied
+   * to their schedule: events that are gone from the file, or that changed, are removed, and
+   * events that are new to the file are added. Only this user's schedule changes; other users
+   * invited to the same events keep their copies. A user who does not exist yet is uploaded.
+   *
+   * @param fileName name of XML file to be read
+   * @return true if the user's schedule changed; false if it already matched the file
+   * @throws IllegalArgumentException if fileName is null or an empty String
+   * @throws IllegalArgumentException if userId is an empty String
+   * @throws IllegalStateException    if the file cannot be read or its events are invalid, in
+   *                                  which case the user's schedule is left as it was
+   */
+  boolean reloadXMLFile(String fileName);
+
+  /**
+   * Brings a user's schedule up to date with a newer version of it, which was read from
+   * their XML file already (see reloadXMLFile()). Only the difference is applied, in the same
+   * way as reloadXMLFile(), and a user who does not exist yet is added with the given events.
+   *
+   * @param userId the user whose schedule is being reloaded
+   * @param events every event in the newer version of their schedule
+   * @return true if the user's schedule changed; false if it already matched the events
+   * @throws IllegalArgumentException if userId or events is null
+   * @throws IllegalStateException    if there are no events, an event has no invited users,
+   *                                  or two of the events conflict, in which case the user's
+   *                                  schedule is left as it was
+   */
+  boolean reloadUser(String userId, List<Event> events);
+
   /**
    * Creates an event and adds it to a user's schedule and the schedules of all the invitees.
    * Not every user that was invited to the event must exist for the event to be valid in
@@ -94,12 +145,47 @@ interface MutableNUPlannerModel {
   void scheduleEvent(List<String> userIds, Event event);
 
   /**
-   * Saves an existing user's schedule to an XML file.
+   * Saves an existing user's schedule to an XML file. If the file cannot be written, the user
+   * still counts as changed, so saveAll() tries again. A user whose schedule could not be
+   * loaded from their file is never saved, so the file is not overwritten.
    * @param userId name of a registered user in the system
    * @throws IllegalArgumentException if userId is null or does not exist in the system
+   * @throws IllegalStateException    if the user's schedule could not be loaded
+   * @throws RuntimeException         if the file cannot be written
    */
   void saveUserToXML(String userId);
 
+  /**
+   * Saves the schedule of every user whose schedule has changed since it was last saved to
+   * their XML file. The files are written in parallel, and a file whose contents would come
+   * out exactly the same as what it already holds is not written at all. The schedules are
+   * read while holding the model's lock, which is let go of before any file is written, so
+   * this can be called from a background thread as long as changes to the model are made
+   * while holding the same lock.
+   * @return the reason each user that could not be saved failed, by their user id. Empty if
+   *         everyone was saved
+   */
+  Map<String, String> saveAll();
+
+  /**
+   * Saves every user in the system and their schedules to a single binary snapshot file,
+   * which can be loaded again much faster than the users' XML files (see
+   * NUPlanner.fromSnapshot()). XML files remain the way to share schedules. Users whose
+   * schedules could not be loaded from their files are left out.
+   * @param fileName name of the snapshot file
+   * @throws IllegalArgumentException if fileName is null
+   */
+  void saveSnapshot(String fileName);
+
+  /**
+   * Waits until every change made to the model so far has been forced to its journal, if it
+   * has one. Changing the model waits for this on its own, unless the change is made while
+   * holding the model's lock (synchronized (model) { ... }), since waiting on the disk while
+   * holding the lock would hold up everyone else, and leave nothing for the journal to force
+   * together. Whoever holds the lock should call this once they have let go of it.
+   */
+  void awaitDurable();
+
   /** Adds a new user to the system.
    * If the user already exists, it will be replaced with the new user.
    * @param user the user to be added
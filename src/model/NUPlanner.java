@@ -1,14 +1,26 @@
 package model;
 
-import org.w3c.dom.Document;
-
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
+import helpers.EventRecord;
 import helpers.FileHelper;
+import helpers.MutationJournal;
+import helpers.Snapshot;
+import helpers.XMLScheduleReader;
 
 /**
  * Represents a NUPlanner, a calendar-based system that contains users and their schedules.
@@ -17,17 +29,36 @@ import helpers.FileHelper;
  * This invariant ensures that events are properly organized and that the host is always
  * included in the list of invited users. Everytime an event is modified or added to a user's
  * schedule, we check the above criteria and throw an exception if it is not met.
+ * The planner is only changed on the GUI's thread, while users' files are saved from other
+ * threads (see saveAll() and controller.WriteBehindSaver). Every method that reads or changes
+ * users therefore holds the planner's lock, and the ones that read or write files only hold
+ * it for as long as they touch users, never while they wait on the disk (saveSnapshot() being
+ * the exception, since the snapshot is written as it is read). Changes recorded in a journal
+ * are likewise only waited for once the lock has been let go of (see awaitDurable()).
+ * Reading or changing a User the planner handed out, rather than going through the planner,
+ * must be done on the GUI's thread or while holding the same lock
+ * (synchronized (planner) { ... }).
  */
 public class NUPlanner implements NUPlannerModel {
 
-  private final List<User> users;
+  private final UserRegistry users;
+  // id of the snapshot this planner was last loaded from or saved to; 0 if there is none
+  private long snapshotId;
+  // records every change made to the planner, if one has been set; see setJournal()
+  private volatile MutationJournal journal;
+  // true if uploading a file only reads the user's id, and leaves their events for later
+  private boolean lazyLoading;
+  // hash of what was last written to, or found in, each user's XML file, which lets us skip
+  // writing a file again when its contents would come out the same; see saveAll()
+  private final Map<String, byte[]> savedHashes;
 
   /**
    * Creates a new NUPlanner scheduling system object.
    * @param buildDefaultUsers true of the model should create default users; false otherwise
    */
   public NUPlanner(boolean buildDefaultUsers) {
-    this.users = new ArrayList<>();
+    this.users = new UserRegistry();
+    this.savedHashes = new ConcurrentHashMap<>();
 
     if (buildDefaultUsers) {
       this.uploadXMLFile("bobby.xml");
@@ -39,88 +70,431 @@ public class NUPlanner implements NUPlannerModel {
 
   /**
    * Builds a new NUPlanner object with a pre-made set of users and their schedules. It is assumed
-   * that every user is unique and their schedules have no conflicting events.
+   * that their schedules have no conflicting events. The planner keeps its own copy of the list,
+   * so adding to or removing from the given list afterwards does not change the planner.
    * @param users list of users
+   * @throws IllegalArgumentException if users is null or two users share the same userId
    */
   public NUPlanner(List<User> users) {
     if (users == null) {
       throw new IllegalArgumentException("Users must not be null.");
     }
 
-    this.users = users;
+    this.users = new UserRegistry(users);
+    this.savedHashes = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Builds a new NUPlanner object with the users and schedules saved in a snapshot, which is
+   * much faster than uploading each user's XML file. See saveSnapshot().
+   * @param fileName name of the snapshot file
+   * @return the NUPlanner holding every user in the snapshot
+   * @throws IllegalArgumentException if fileName is null
+   * @throws IllegalStateException    if the file cannot be read or is not a valid snapshot
+   */
+  public static NUPlanner fromSnapshot(String fileName) {
+    NUPlanner planner = new NUPlanner(Snapshot.read(fileName));
+    planner.snapshotId = Snapshot.readId(fileName);
+    return planner;
+  }
+
+  /**
+   * Opens a journal of the changes made to this planner since it was loaded from its
+   * snapshot, replaying those changes first (see MutationJournal), and from then on records
+   * every change made to the planner in it. A planner that was not loaded from a snapshot
+   * should first be saved to one, so that the journal has something to build on.
+   * @param fileName name of the journal file
+   * @throws IllegalArgumentException if fileName is null
+   * @throws IllegalStateException    if the journal cannot be opened or read
+   */
+  public void openJournal(String fileName) {
+    this.setJournal(MutationJournal.open(fileName, this.snapshotId, this));
   }
 
   /**
-   * Builds an event from a hashmap of data that was read from a file and adds it to a list of
-   * events.
-   * @param event  an event
-   * @param events list of events
+   * Records every change made to this planner from now on in the given journal, which must
+   * already hold the changes made since the planner's snapshot.
+   * @param journal the journal, or null to stop recording changes
    */
-  private void buildEvent(HashMap<String, ArrayList<String>> event, ArrayList<Event> events) {
-    String name = event.get("name").get(0);
-    String location = event.get("location").get(1).split(":")[1];
-    boolean online = Boolean.parseBoolean(event.get("location").get(0).split(":")[1]);
-    String startingDay = event.get("time").get(0).split(":")[1];
-    String startingTime = event.get("time").get(1).split(":")[1];
-    String endingDay = event.get("time").get(2).split(":")[1];
-    String endingTime = event.get("time").get(3).split(":")[1];
-    ArrayList<String> newInvitedUsers = new ArrayList<>();
-    event.get("users").forEach(user -> newInvitedUsers.add(user.split("uid:")[1]));
-
-    events.add(
-        new Event(name, location, online,
-            new Date(Day.valueOf(startingDay), startingTime),
-            new Date(Day.valueOf(endingDay), endingTime), newInvitedUsers)
-    );
+  public void setJournal(MutationJournal journal) {
+    this.journal = journal;
+  }
+
+  @Override
+  public void awaitDurable() {
+    MutationJournal journal = this.journal;
+
+    if (journal != null) {
+      journal.awaitDurable();
+    }
+  }
+
+  /**
+   * Waits for the changes just made to be forced to the journal, unless the caller still
+   * holds the planner's lock, in which case it is left to them once they let go of it (see
+   * awaitDurable()).
+   */
+  private void awaitDurableUnlessLocked() {
+    if (!Thread.holdsLock(this)) {
+      this.awaitDurable();
+    }
+  }
+
+  /**
+   * Sets whether uploading an XML file builds the user's schedule right away, or leaves it for
+   * later. When loading lazily, uploading a file only reads the user id at the top of it, and
+   * the schedule is built from the file the first time anyone looks at it, so uploading a very
+   * large number of users takes little time and memory until their schedules are actually
+   * needed. The catch is that the file must stay where it is until then, and that invalid or
+   * conflicting events are only found out then. While a journal is attached, the events are
+   * still read and checked on upload, since the journal records them. If the schedule cannot
+   * be built by then, the user is left with an empty schedule (see User's lazy constructors),
+   * which does not affect anyone else.
+   * @param lazyLoading true if uploads should only read user ids; false otherwise
+   */
+  public void setLazyLoading(boolean lazyLoading) {
+    this.lazyLoading = lazyLoading;
   }
 
   @Override
   public void uploadXMLFile(String fileName) {
+    Upload upload = this.readUserFromXML(fileName);
+
+    synchronized (this) {
+      // the user may have been added while we were reading the file
+      if (this.users.contains(upload.user.getUserId())) {
+        throw new IllegalStateException("Cannot upload a new XML file for a user that "
+            + "already exists in the system.");
+      }
+
+      this.users.register(upload.user);
+      this.recordUploads(List.of(upload));
+    }
+
+    this.awaitDurableUnlessLocked();
+  }
+
+  /**
+   * Represents a user read from an XML file, along with the events the file held when it was
+   * read. The events are only kept while a journal is attached, which records them rather
+   * than the file, since the file may have changed by the time the journal is replayed.
+   */
+  private static final class Upload {
+    private final User user;
+    // null if there is no journal to record them in
+    private final List<Event> events;
+
+    private Upload(User user, List<Event> events) {
+      this.user = user;
+      this.events = events;
+    }
+  }
+
+  /**
+   * Records users that were uploaded in the journal, if there is one. Each user is recorded
+   * with the events their file held when it was read, so that recording a user uploaded
+   * lazily does not read their schedule after all.
+   * @param uploads the users that were uploaded
+   */
+  private void recordUploads(List<Upload> uploads) {
+    if (this.journal == null) {
+      return;
+    }
+
+    Map<String, List<Event>> schedules = new LinkedHashMap<>();
+    for (Upload upload : uploads) {
+      // the journal was attached after the file was read
+      List<Event> events = upload.events != null ? upload.events : upload.user.getEvents();
+      schedules.put(upload.user.getUserId(), events);
+    }
+
+    this.journal.usersAdded(schedules);
+  }
+
+  @Override
+  public Map<String, String> uploadXMLFiles(List<String> fileNames) {
+    if (fileNames == null) {
+      throw new IllegalArgumentException("File names cannot be null.");
+    }
+
+    // every file is read on its own thread first. Reading only looks up users in the system
+    // and never registers anyone, so the files can safely be read at the same time. Each
+    // read leaves behind either the user or the reason it failed, in the slot of its file
+    Upload[] readUsers = new Upload[fileNames.size()];
+    String[] readFailures = new String[fileNames.size()];
+    List<ForkJoinTask<?>> reads = new ArrayList<>(fileNames.size());
+    ForkJoinPool pool = new ForkJoinPool();
+
+    try {
+      for (int file = 0; file < fileNames.size(); file++) {
+        int slot = file;
+        reads.add(pool.submit(() -> {
+          try {
+            readUsers[slot] = this.readUserFromXML(fileNames.get(slot));
+          } catch (IllegalArgumentException | IllegalStateException ex) {
+            readFailures[slot] = ex.getMessage();
+          }
+        }));
+      }
+
+      reads.forEach(ForkJoinTask::join);
+    } finally {
+      pool.shutdown();
+    }
+
+    // once everything has been read, we register the users one by one, in the order their
+    // files were given
+    Map<String, String> failures = new LinkedHashMap<>();
+    List<Upload> registered = new ArrayList<>(fileNames.size());
+    synchronized (this) {
+      for (int file = 0; file < fileNames.size(); file++) {
+        if (readUsers[file] == null) {
+          failures.put(fileNames.get(file), readFailures[file]);
+          continue;
+        }
+
+        try {
+          this.users.register(readUsers[file].user);
+          registered.add(readUsers[file]);
+        } catch (IllegalArgumentException ex) {
+          // two of the files belong to the same user, and the earlier one got registered
+          failures.put(fileNames.get(file), ex.getMessage());
+        }
+      }
+
+      this.recordUploads(registered);
+    }
+
+    this.awaitDurableUnlessLocked();
+    return failures;
+  }
+
+  @Override
+  public boolean reloadXMLFile(String fileName) {
     if (fileName == null) {
       throw new IllegalArgumentException("File name cannot be null.");
     } else if (fileName.isEmpty()) {
       throw new IllegalArgumentException("File name cannot be an empty String.");
     }
 
-    Document document = FileHelper.createXMlDoc(fileName);
-    String userId = FileHelper.readUserIDFromXML(document);
+    String userId;
+    List<Event> events = null;
+    try (XMLScheduleReader reader = new XMLScheduleReader(fileName)) {
+      userId = reader.getUserId();
 
-    if (userId.trim().isEmpty()) {
-      throw new IllegalArgumentException("UserId must not be an empty string.");
+      if (userId.trim().isEmpty()) {
+        throw new IllegalArgumentException("UserId must not be an empty string.");
+      }
+
+      if (this.users.contains(userId)) {
+        events = readEvents(reader);
+      }
     }
 
-    // if user already exists, we should not allow the file upload
-    int matchingUserIdx = this.findUserIndexByName(userId);
-    if (matchingUserIdx > -1) {
-      throw new IllegalStateException("Cannot upload a new XML file for a user that "
-          + "already exists in the system.");
+    if (events == null) {
+      // nothing to compare against, so this is a regular upload
+      this.uploadXMLFile(fileName);
+      return true;
     }
 
-    Map<Integer, HashMap<String, ArrayList<String>>>
-        schedule = FileHelper.readUserScheduleFromXML(fileName);
+    return this.reloadUser(userId, events);
+  }
+
+  @Override
+  public boolean reloadUser(String userId, List<Event> events) {
+    if (userId == null || events == null) {
+      throw new IllegalArgumentException("userId and events must not be null.");
+    } else if (events.isEmpty()) {
+      throw new IllegalStateException("Must have at least 1 event.");
+    }
+
+    // the new schedule is built on its own first, so conflicting events are turned down
+    // before the user's schedule is touched
+    Schedule reloaded = new Schedule(userId);
+    for (Event event : events) {
+      if (event.getInvitedUsers().isEmpty()) {
+        throw new IllegalStateException("Event must have at least 1 invitee.");
+      }
+
+      reloaded.addEvent(event);
+    }
+
+    boolean changed;
+    synchronized (this) {
+      User user = this.users.find(userId);
+
+      if (user == null) {
+        user = new User(userId);
+        reloaded.getEvents().forEach(user::addEvent);
+        // the schedule matches the file it came from, so there is nothing to save yet
+        user.markClean();
+        this.users.register(user);
+
+        if (this.journal != null) {
+          this.journal.userAdded(user);
+        }
+        changed = true;
+      } else {
+        changed = applyReload(user, reloaded);
+
+        // a user uploaded lazily builds their schedule from their file as it is by now, which
+        // the journal knows nothing about, so the reload is recorded even if nothing changed
+        if (this.journal != null) {
+          this.journal.userReloaded(userId, reloaded.getEvents());
+        }
+      }
+    }
+
+    this.awaitDurableUnlessLocked();
+    return changed;
+  }
+
+  /**
+   * Brings a registered user's schedule up to date with a newer version of it.
+   * @param user     the user being reloaded
+   * @param reloaded the newer version of their schedule
+   * @return true if the user's schedule changed; false otherwise
+   */
+  private static boolean applyReload(User user, Schedule reloaded) {
+    boolean changed = false;
+
+    for (Event event : new ArrayList<>(user.getEvents())) {
+      Event replacement = reloaded.getEvent(event.getName());
+
+      if (replacement == null || !isSameEvent(event, replacement)) {
+        user.removeEvent(event.getName());
+        changed = true;
+      }
+    }
+
+    // every event the user still has is in the reloaded schedule too, and those never
+    // overlap, so none of the events added here can conflict with them
+    for (Event event : reloaded.getEvents()) {
+      if (user.getEvent(event.getName()) == null) {
+        user.addEvent(event);
+        changed = true;
+      }
+    }
+
+    return changed;
+  }
+
+  /**
+   * Checks to see whether two events hold the same content, in which case there is no need
+   * to replace one with the other.
+   */
+  private static boolean isSameEvent(Event event, Event other) {
+    return event.getName().equals(other.getName())
+        && event.getLocation().equals(other.getLocation())
+        && event.getOnline() == other.getOnline()
+        && event.getStartMinuteOfWeek() == other.getStartMinuteOfWeek()
+        && event.getEndMinuteOfWeek() == other.getEndMinuteOfWeek()
+        && event.getInvitedUsers().equals(other.getInvitedUsers());
+  }
+
+  /**
+   * Reads a user and their schedule from an XML file, without registering them. The file is
+   * read a single time: the user id comes first, so we can stop right there if the upload is
+   * not allowed, without reading any of the events. When loading lazily (see
+   * setLazyLoading()), that is also as far as we read, and the user reads their events from
+   * the file the first time their schedule is needed. The exception is when a journal is
+   * attached, which has to record the events the file holds now: the events are then read and
+   * checked, and their keys are kept along with the user.
+   *
+   * @param fileName name of XML file to be read
+   * @return the user described by the file, and its events if there is a journal
+   * @throws IllegalArgumentException if fileName is null or an empty String
+   * @throws IllegalArgumentException if userId is an empty String
+   * @throws IllegalStateException    if a user already exists with that name in the system
+   */
+  private Upload readUserFromXML(String fileName) {
+    if (fileName == null) {
+      throw new IllegalArgumentException("File name cannot be null.");
+    } else if (fileName.isEmpty()) {
+      throw new IllegalArgumentException("File name cannot be an empty String.");
+    }
+
+    List<Event> events = null;
+    String userId;
+    try (XMLScheduleReader reader = new XMLScheduleReader(fileName)) {
+      userId = reader.getUserId();
+
+      if (userId.trim().isEmpty()) {
+        throw new IllegalArgumentException("UserId must not be an empty string.");
+      }
+
+      // if user already exists, we should not allow the file upload
+      if (this.users.contains(userId)) {
+        throw new IllegalStateException("Cannot upload a new XML file for a user that "
+            + "already exists in the system.");
+      }
+
+      if (!this.lazyLoading || this.journal != null) {
+        events = readEvents(reader);
+      }
+    }
+
+    List<Event> journaled = this.journal != null ? events : null;
+
+    if (this.lazyLoading) {
+      // the file is opened again later on, so its name must not depend on where we are
+      String path = Paths.get(fileName).toAbsolutePath().toString();
+      Supplier<List<Event>> loader = () -> readEventsFromXML(path, userId);
+
+      if (events == null) {
+        // the planner's index learns which events the user holds once their schedule is built
+        return new Upload(new User(userId, loader), null);
+      }
+
+      List<EventKey> heldEvents = new ArrayList<>(events.size());
+      events.forEach(event -> heldEvents.add(EventKey.of(event)));
+      return new Upload(new User(userId, loader, heldEvents), journaled);
+    }
 
-    ArrayList<Event> events = new ArrayList<>();
     User user = new User(userId);
-    this.buildUserFromXML(schedule, events, user);
+    events.forEach(user::addEvent);
+    // the schedule matches the file it came from, so there is nothing to save yet
+    user.markClean();
+    return new Upload(user, journaled);
   }
 
   /**
-   * Creates a new user given a hashmap of data that was constructed after parsing an XML file.
+   * Reads the events of a user who was uploaded lazily from their XML file.
    *
-   * @param schedule the schedule of the user
-   * @param events   list of events on the users schedule that have yet to be added
-   * @param user     the user whose schedule is being built
+   * @param fileName name of XML file to be read
+   * @param userId   the user the file belonged to when they were uploaded
+   * @return the events in the file
+   * @throws IllegalStateException if the file no longer belongs to the user
+   */
+  private static List<Event> readEventsFromXML(String fileName, String userId) {
+    try (XMLScheduleReader reader = new XMLScheduleReader(fileName)) {
+      if (!reader.getUserId().equals(userId)) {
+        throw new IllegalStateException("File no longer belongs to " + userId + ".");
+      }
+
+      return readEvents(reader);
+    }
+  }
+
+  /**
+   * Reads the rest of the events in an XML file, and checks that they make valid events
+   * before any of them is added to a schedule.
+   *
+   * @param reader the reader of the file, past the user id
+   * @return the events in the file
    * @throws IllegalStateException if there are no events
    * @throws IllegalStateException if any event has 0 invitees
    */
-  private void buildUserFromXML(Map<Integer, HashMap<String, ArrayList<String>>> schedule,
-      ArrayList<Event> events, User user) {
-    schedule.values().forEach(e -> this.buildEvent(e, events));
+  private static List<Event> readEvents(XMLScheduleReader reader) {
+    List<EventRecord> records = new ArrayList<>();
+    while (reader.hasNextEvent()) {
+      records.add(reader.nextRecord());
+    }
 
     // if there exist no <event></event> tags in the XML, then we can assume that
     // a user does not have any events, and therefore we throw an IllegalStateException.
     // If there exists an <event></event> tag then we assume that there is content inside it
-    if (events.isEmpty()) {
+    if (records.isEmpty()) {
       throw new IllegalStateException("Must have at least 1 event.");
     }
 
@@ -129,43 +503,47 @@ public class NUPlanner implements NUPlannerModel {
     // will always exist. However, if there is no content inside the tag, that is
     // when we throw an IllegalStateException because we expect there to be at least
     // one invitee
-    for (Event e : events) {
-      if (e.getInvitedUsers().isEmpty()) {
+    List<Event> events = new ArrayList<>(records.size());
+    for (EventRecord record : records) {
+      if (record.getInviteeCount() == 0) {
         throw new IllegalStateException("Event must have at least 1 invitee.");
       }
 
-      user.addEvent(e);
+      events.add(record.toEvent());
     }
 
-    this.users.add(user);
+    return events;
   }
 
   @Override
-  public boolean doesEventConflictExist(String userId, Event event) {
+  public synchronized boolean doesEventConflictExist(String userId, Event event) {
     if (userId == null || event == null) {
       throw new IllegalArgumentException("userId and event must not be null.");
-    } else if (this.findUserIndexByName(userId) == -1) {
-      throw new IllegalArgumentException("Invalid userId.");
     }
 
-    User user = this.users.get(this.findUserIndexByName(userId));
+    User user = this.users.find(userId);
+
+    if (user == null) {
+      throw new IllegalArgumentException("Invalid userId.");
+    }
 
     return user.getSchedule().hasEventNameConflict(event.getName())
         || user.getSchedule().hasTimeConflict(event);
   }
 
   @Override
-  public boolean doesEventConflictExistForManyUsers(List<String> userIds, Event event) {
+  public synchronized boolean doesEventConflictExistForManyUsers(List<String> userIds, Event event) {
     if (userIds == null || event == null) {
       throw new IllegalArgumentException("userId and event must not be null.");
     }
 
     for (String userId : userIds) {
-      if (this.findUserIndexByName(userId) == -1) {
+      User user = this.users.find(userId);
+
+      if (user == null) {
         throw new IllegalArgumentException("Invalid userId provided: " + userId);
       }
 
-      User user = this.users.get(this.findUserIndexByName(userId));
       if (user.getSchedule().hasEventNameConflict(event.getName())
               || user.getSchedule().hasTimeConflict(event)) {
         return true;
@@ -177,135 +555,146 @@ public class NUPlanner implements NUPlannerModel {
 
 
   @Override
-  public String displayUserSchedule(String userId) {
+  public synchronized String displayUserSchedule(String userId) {
     if (userId == null) {
       throw new IllegalArgumentException("Username cannot be null.");
-    } else if (this.findUserIndexByName(userId) == -1) {
+    }
+
+    User user = this.users.find(userId);
+
+    if (user == null) {
       throw new IllegalArgumentException("Invalid username.");
     }
 
-    int idx = this.findUserIndexByName(userId);
-    return this.users.get(idx).toString();
+    return user.toString();
   }
 
   @Override
   public void addEvent(String userId, Event event) {
-    if (userId == null || event == null) {
-      throw new IllegalArgumentException("Username and event cannot be null.");
-    } else if (this.findUserIndexByName(userId) == -1) {
-      throw new IllegalArgumentException("Invalid username.");
-    } else if (event.getInvitedUsers().isEmpty()) {
-      throw new IllegalStateException("Must have at least 1 invited user.");
-    } else if (!event.getInvitedUsers().get(0).equals(userId)) {
-      throw new IllegalStateException("First invited user must be the same as host, or userId");
-    }
-
-    User host = this.users.get(this.findUserIndexByName(userId));
-    // addEvent will throw an exception if a time conflict or name conflict
-    // exists, and code execution will stop. This means that we essentially
-    // fail to move on to the subsequent code and do not add the invitees to the event
-
-    host.addEvent(event); // can throw e if name or time conflict
-
-    ArrayList<String> invitedUsers = event.getInvitedUsers();
-
-    for (String invitedUser : invitedUsers) {
-      // we ignore adding an event to the host, because we already did so above.
-      // if we were to add the event to the host schedule again, we would have a conflict
-      // we can safely assume that userId is the same as the host id because
-      // we already check for that above
-      if (!invitedUser.equals(userId)) {
-        int userIdx = this.findUserIndexByName(invitedUser);
-
-        if (userIdx > -1) {
-          User targetUser = this.users.get(userIdx);
-          // addEvent() will fail if a time or name conflict exists.
-          // But because targetUser is an invited user, addEvent() will not throw an
-          // exception, so we can simply ignore the failed call of adding an event to
-          // this specific target user and move on to the next one
-          targetUser.addEvent(event);
+    synchronized (this) {
+      if (userId == null || event == null) {
+        throw new IllegalArgumentException("Username and event cannot be null.");
+      }
+
+      User host = this.users.find(userId);
+
+      if (host == null) {
+        throw new IllegalArgumentException("Invalid username.");
+      } else if (event.getInvitedUsers().isEmpty()) {
+        throw new IllegalStateException("Must have at least 1 invited user.");
+      } else if (!event.getInvitedUsers().get(0).equals(userId)) {
+        throw new IllegalStateException("First invited user must be the same as host, or userId");
+      }
+
+      // addEvent will throw an exception if a time conflict or name conflict
+      // exists, and code execution will stop. This means that we essentially
+      // fail to move on to the subsequent code and do not add the invitees to the event
+
+      host.addEvent(event); // can throw e if name or time conflict
+
+      ArrayList<String> invitedUsers = event.getInvitedUsers();
+
+      for (String invitedUser : invitedUsers) {
+        // we ignore adding an event to the host, because we already did so above.
+        // if we were to add the event to the host schedule again, we would have a conflict
+        // we can safely assume that userId is the same as the host id because
+        // we already check for that above
+        if (!invitedUser.equals(userId)) {
+          User targetUser = this.users.find(invitedUser);
+
+          if (targetUser != null) {
+            // addEvent() will fail if a time or name conflict exists.
+            // But because targetUser is an invited user, addEvent() will not throw an
+            // exception, so we can simply ignore the failed call of adding an event to
+            // this specific target user and move on to the next one
+            targetUser.addEvent(event);
+          }
         }
       }
+
+      if (this.journal != null) {
+        this.journal.eventAdded(userId, event);
+      }
     }
+
+    this.awaitDurableUnlessLocked();
   }
 
   @Override
   public void removeEvent(String userId, String eventName) {
-    if (userId == null || eventName == null) {
-      throw new IllegalArgumentException("Username and eventName cannot be null.");
-    } else if (this.findUserIndexByName(userId) == -1) {
-      throw new IllegalArgumentException("Invalid username.");
-    }
+    synchronized (this) {
+      if (userId == null || eventName == null) {
+        throw new IllegalArgumentException("Username and eventName cannot be null.");
+      }
 
-    // checks to see if an event exists in the schedule of username and stores it as an optional
-    Optional<Event> optionalEvent = this.users.get(this.findUserIndexByName(userId))
-        .getEvents().stream().filter(e -> e.getName().equals(eventName)).findFirst();
+      User user = this.users.find(userId);
 
-    if (optionalEvent.isEmpty()) {
-      throw new IllegalArgumentException("Invalid eventName.");
-    }
+      if (user == null) {
+        throw new IllegalArgumentException("Invalid username.");
+      }
 
-    // we have to call event.get() to return the actual event, as we are using an optional
-    ArrayList<String> invitees = optionalEvent.get().getInvitedUsers();
+      Event event = user.getEvent(eventName);
 
-    // if username is the host --> remove event from all invitees' schedules
-    // otherwise remove event only from user's schedule
-    if (invitees.get(0).equals(userId)) {
-      invitees.forEach(invitee -> {
-        int userIdx = this.findUserIndexByName(invitee);
-        if (userIdx > -1) { // the invitee might not exist in the system
-          User user = this.users.get(userIdx);
-          user.removeEvent(eventName);
+      if (event == null) {
+        throw new IllegalArgumentException("Invalid eventName.");
+      }
+
+      ArrayList<String> invitees = event.getInvitedUsers();
+
+      // if username is the host --> remove event from the schedules of everyone holding it
+      // otherwise remove event only from user's schedule
+      if (invitees.get(0).equals(userId)) {
+        EventKey key = EventKey.of(event);
+
+        for (User holder : this.users.holdersOf(key)) {
+          removeFromHolder(holder, key);
         }
-      });
-    } else {
-      this.users.get(this.findUserIndexByName(userId)).removeEvent(eventName);
-    }
-  }
+      } else {
+        user.removeEvent(eventName);
+      }
 
-  /**
-   * Retrieves the index of a user with a matching name.
-   *
-   * @param userId name we are searching for
-   * @return the index of a user with a matching name, otherwise -1
-   */
-  private int findUserIndexByName(String userId) {
-    for (int i = 0; i < this.users.size(); i++) {
-      if (this.users.get(i).getUserId().equals(userId)) {
-        return i;
+      if (this.journal != null) {
+        this.journal.eventRemoved(userId, eventName);
       }
     }
 
-    return -1;
+    this.awaitDurableUnlessLocked();
   }
 
   @Override
   public void modifyEvent(String oldEventName, Event modifiedEvent) {
-    if (oldEventName == null || modifiedEvent == null) {
-      throw new IllegalArgumentException("oldEventName and modifiedEvent must not be null");
-    } else if (modifiedEvent.getInvitedUsers().isEmpty()) {
-      throw new IllegalStateException("Must have at least 1 invitee.");
-    }
+    synchronized (this) {
+      if (oldEventName == null || modifiedEvent == null) {
+        throw new IllegalArgumentException("oldEventName and modifiedEvent must not be null");
+      } else if (modifiedEvent.getInvitedUsers().isEmpty()) {
+        throw new IllegalStateException("Must have at least 1 invitee.");
+      }
 
-    String hostName = modifiedEvent.getInvitedUsers().get(0);
-    int hostNameIdx = this.findUserIndexByName(hostName);
+      String hostName = modifiedEvent.getInvitedUsers().get(0);
+      User host = this.users.find(hostName);
 
-    if (hostNameIdx == -1) {
-      throw new IllegalStateException("Host of event is not loaded into the system yet.");
-    }
+      if (host == null) {
+        throw new IllegalStateException("Host of event is not loaded into the system yet.");
+      }
+
+      Optional<Event> oldEvent = Optional.ofNullable(host.getEvent(oldEventName));
 
-    User host = this.users.get(this.findUserIndexByName(hostName));
+      host.removeEvent(oldEventName);
+      this.handleAddModifiedEvent(host, modifiedEvent, oldEventName, oldEvent);
 
-    Optional<Event> oldEvent = host.getEvents()
-        .stream().filter(e -> e.getName().equals(oldEventName)).findFirst();
+      if (this.journal != null) {
+        this.journal.eventModified(oldEventName, modifiedEvent);
+      }
+    }
 
-    host.removeEvent(oldEventName);
-    this.handleAddModifiedEvent(host, modifiedEvent, oldEventName, oldEvent);
+    this.awaitDurableUnlessLocked();
   }
 
   /**
    * Handles adding the modified event to the schedules of the users who were invited to the
-   * event.
+   * event. Only the schedules the change affects are touched: the users currently holding the
+   * old event (the event with the old name in the host's schedule) lose it, and the users invited to the
+   * modified event gain it. Other users' events that merely share the old name are left alone.
    *
    * @param host          the host of the event
    * @param modifiedEvent the modified event
@@ -317,16 +706,6 @@ public class NUPlanner implements NUPlannerModel {
       Optional<Event> oldEvent) {
     try {
       host.addEvent(modifiedEvent); // will throw error if new host has conflict
-
-      this.users.forEach(user -> {
-        int userIdx = this.findUserIndexByName(user.getUserId());
-        // we already added the new event to the host, so we want to
-        // avoid doing it again because a conflict would exist
-        if (userIdx > -1 && !user.getUserId().equals(host.getUserId())) {
-          user.removeEvent(oldEventName);
-          user.addEvent(modifiedEvent);
-        }
-      });
     } catch (IllegalStateException ex) {
       // if a conflict exists with the host's schedule when adding the new event, we simply
       // add back the old event and nothing changes
@@ -334,76 +713,270 @@ public class NUPlanner implements NUPlannerModel {
       // rethrow the exception because the event was unable to be added to the host
       throw ex;
     }
+
+    // we already added the new event to the host, so we want to
+    // avoid doing it again because a conflict would exist
+    // the old event is the one the host holds, which may have been hosted by someone else
+    EventKey oldKey = oldEvent.map(EventKey::of)
+        .orElseGet(() -> new EventKey(host.getUserId(), oldEventName));
+
+    for (User holder : this.users.holdersOf(oldKey)) {
+      if (holder != host) {
+        removeFromHolder(holder, oldKey);
+      }
+    }
+
+    for (String invitee : modifiedEvent.getInvitedUsers()) {
+      User invitedUser = this.users.find(invitee);
+
+      if (invitedUser != null && invitedUser != host) { // the invitee might not exist in the system
+        invitedUser.addEvent(modifiedEvent);
+      }
+    }
+  }
+
+  /**
+   * Removes an event from a user the index lists as holding it. A user uploaded lazily is
+   * listed by what their file held when it was uploaded, so once their schedule is built we
+   * make sure that what they hold under that name is still that same event.
+   *
+   * @param holder a user holding the event
+   * @param key    the key of the event
+   */
+  private static void removeFromHolder(User holder, EventKey key) {
+    Event held = holder.getEvent(key.getName());
+
+    if (held != null && EventKey.of(held).equals(key)) {
+      holder.removeEvent(key.getName());
+    }
   }
 
   @Override
   public void scheduleEvent(List<String> userIds, Event event) {
-    // NOTE: this method is incomplete. The current available specifications are not
-    // clear as to how this method should be implemented, but below is our educated guess.
-    // We are waiting on clearer instructions to be released. For instance, we do not know
-    // whether the provided event will contain the host on the first line of invited users
-    // or not. It is not clear apparent whether the event is user-created (as in it will have
-    // a host), or if it is system-created.
+    synchronized (this) {
+      // NOTE: this method is incomplete. The current available specifications are not
+      // clear as to how this method should be implemented, but below is our educated guess.
+      // We are waiting on clearer instructions to be released. For instance, we do not know
+      // whether the provided event will contain the host on the first line of invited users
+      // or not. It is not clear apparent whether the event is user-created (as in it will have
+      // a host), or if it is system-created.
+
+      if (userIds == null || event == null) {
+        throw new IllegalArgumentException("Users and event must not be null.");
+      }
 
-    if (userIds == null || event == null) {
-      throw new IllegalArgumentException("Users and event must not be null.");
-    }
+      userIds.forEach(userId -> {
+        User user = this.users.find(userId);
+        if (user != null) {
+          user.addEvent(event);
+        }
+      });
 
-    userIds.forEach(userId -> {
-      int userIdx = this.findUserIndexByName(userId);
-      if (userIdx > -1) {
-        User user = this.users.get(userIdx);
-        user.addEvent(event);
+      if (this.journal != null) {
+        this.journal.eventScheduled(userIds, event);
       }
-    });
+    }
+
+    this.awaitDurableUnlessLocked();
   }
 
   @Override
   public void saveUserToXML(String userId) {
     if (userId == null) {
       throw new IllegalArgumentException("User must not be null.");
-    } else if (this.findUserIndexByName(userId) == -1) {
-      throw new IllegalArgumentException("Invalid user.");
     }
 
-    FileHelper.writeToFile(this.users.get(this.findUserIndexByName(userId)), userId + ".xml");
+    // as in saveAll(), the file is rendered while holding the planner's lock, and written
+    // after letting go of it
+    User user;
+    byte[] contents;
+    synchronized (this) {
+      user = this.users.find(userId);
+
+      if (user == null) {
+        throw new IllegalArgumentException("Invalid user.");
+      }
+
+      contents = FileHelper.toXML(user);
+
+      // rendering the file may have been what built the schedule
+      if (user.hasFailedToLoad()) {
+        throw new IllegalStateException("The schedule of " + userId + " could not be loaded, "
+            + "so it is not saved over their file.");
+      }
+
+      user.markClean();
+    }
+
+    try {
+      this.writeIfChanged(userId, contents);
+    } catch (RuntimeException ex) {
+      // the file is still out of date, so the next save should try again
+      user.markDirty();
+      throw ex;
+    }
   }
 
   @Override
-  public ArrayList<Event> checkOccurringMeetings(String userId, Date date) {
+  public Map<String, String> saveAll() {
+    // the files are rendered here, one user at a time, while holding the planner's lock, so no
+    // one's schedule is read while another thread might be changing it. Users whose schedules
+    // were never loaded have not changed, so they are skipped without being loaded, and users
+    // whose schedules could not be loaded never count as changed
+    List<String> userIds = new ArrayList<>();
+    List<byte[]> contents = new ArrayList<>();
+    List<User> dirtyUsers = new ArrayList<>();
+    synchronized (this) {
+      for (User user : this.users.asList()) {
+        if (user.isDirty()) {
+          userIds.add(user.getUserId());
+          contents.add(FileHelper.toXML(user));
+          dirtyUsers.add(user);
+          user.markClean();
+        }
+      }
+    }
+
+    // only the writing happens on other threads. Each write leaves the reason it failed, if
+    // it did, in the slot of its user
+    String[] writeFailures = new String[userIds.size()];
+    List<ForkJoinTask<?>> writes = new ArrayList<>(userIds.size());
+    ForkJoinPool pool = new ForkJoinPool();
+
+    try {
+      for (int user = 0; user < userIds.size(); user++) {
+        int slot = user;
+        writes.add(pool.submit(() -> {
+          try {
+            this.writeIfChanged(userIds.get(slot), contents.get(slot));
+          } catch (RuntimeException ex) {
+            writeFailures[slot] = ex.getMessage();
+          }
+        }));
+      }
+
+      writes.forEach(ForkJoinTask::join);
+    } finally {
+      pool.shutdown();
+    }
+
+    Map<String, String> failures = new LinkedHashMap<>();
+    for (int user = 0; user < userIds.size(); user++) {
+      if (writeFailures[user] != null) {
+        // the file is still out of date, so the next save should try again
+        dirtyUsers.get(user).markDirty();
+        failures.put(userIds.get(user), writeFailures[user]);
+      }
+    }
+
+    return failures;
+  }
+
+  /**
+   * Writes the XML file of a user, unless the file already holds exactly the given contents.
+   * When we have not written the file before, we compare against whatever is on disk.
+   * @param userId the user whose file is being written
+   * @param contents the contents of the file
+   */
+  private void writeIfChanged(String userId, byte[] contents) {
+    String fileName = userId + ".xml";
+    Path file = Paths.get(fileName);
+    byte[] hash = FileHelper.contentHash(contents);
+    byte[] savedHash = null;
+
+    // a file that went missing since we last wrote it is written again, whatever it held
+    if (Files.isRegularFile(file)) {
+      savedHash = this.savedHashes.get(userId);
+
+      try {
+        if (savedHash == null) {
+          savedHash = FileHelper.contentHash(Files.readAllBytes(file));
+        }
+      } catch (IOException ex) {
+        // we cannot tell what is in the file, so we write it again
+      }
+    }
+
+    if (!Arrays.equals(hash, savedHash)) {
+      FileHelper.writeBytesToFile(contents, fileName);
+    }
+
+    this.savedHashes.put(userId, hash);
+  }
+
+  @Override
+  public synchronized void saveSnapshot(String fileName) {
+    if (fileName == null) {
+      throw new IllegalArgumentException("fileName must not be null.");
+    }
+
+    // every snapshot gets a new id, so a journal can tell which snapshot it builds on
+    long newSnapshotId = ThreadLocalRandom.current().nextLong();
+
+    // users whose schedules could not be loaded are left out rather than saved as they are
+    List<User> savedUsers = new ArrayList<>(this.users.asList().size());
+    for (User user : this.users.asList()) {
+      user.getSchedule();
+
+      if (!user.hasFailedToLoad()) {
+        savedUsers.add(user);
+      }
+    }
+    Snapshot.write(savedUsers, fileName, newSnapshotId);
+    this.snapshotId = newSnapshotId;
+
+    // the snapshot holds every change in the journal now, so the journal can start over
+    if (this.journal != null) {
+      this.journal.reset(newSnapshotId);
+    }
+  }
+
+  @Override
+  public synchronized ArrayList<Event> checkOccurringMeetings(String userId, Date date) {
     if (userId == null || date == null) {
       throw new IllegalArgumentException("User and date must not be null.");
-    } else if (this.findUserIndexByName(userId) == -1) {
+    }
+
+    User user = this.users.find(userId);
+
+    if (user == null) {
       throw new IllegalArgumentException("User does not exist.");
     }
 
-    ArrayList<Event> occurringMeetings = new ArrayList<>();
-    ArrayList<Event> userEvents = this.users.get(this.findUserIndexByName(userId)).getEvents();
+    return user.getSchedule().getEventsOccurringAt(date);
+  }
+
+  @Override
+  public synchronized User getUser(String userId) {
+    if (userId == null) {
+      throw new IllegalArgumentException("userId must not be null.");
+    }
+
+    User user = this.users.find(userId);
 
-    for (Event event : userEvents) {
-      if (Date.doesSingleDateOccurBetweenTwoDates(event.getStartDate(),
-          event.getEndDate(), date)) {
-        occurringMeetings.add(event);
-      }
+    if (user == null) {
+      throw new IllegalArgumentException("Invalid userId.");
     }
 
-    return occurringMeetings;
+    return user;
   }
 
   @Override
-  public ArrayList<User> getUsers() {
-    return (ArrayList<User>) this.users;
+  public synchronized List<User> getUsers() {
+    return this.users.asList();
   }
 
   @Override
   public void addUser(User user) {
-    int userIdx = this.findUserIndexByName(user.getUserId());
+    synchronized (this) {
+      this.users.register(user);
 
-    if (userIdx > -1) {
-      throw new IllegalArgumentException("User already exists in system.");
+      if (this.journal != null) {
+        this.journal.userAdded(user);
+      }
     }
 
-    this.users.add(user);
+    this.awaitDurableUnlessLocked();
   }
 }
 
@@ -0,0 +1,136 @@
+package model;
+
+/**
+ * Represents which minutes of the week are taken up by events, with one bit for every minute.
+ * Minute 0 is Sunday at 0000. Because an event may continue into the following week (see
+ * Event.getEndMinuteOfWeek()), the bitmap covers this week and the next one, which is 20160
+ * bits packed into 315 longs. Checking whether a range of minutes is free only requires
+ * looking at the handful of words that the range covers, rather than at every event.
+ */
+public class OccupancyBitmap {
+  public static final int MINUTES = 2 * Date.MINUTES_IN_WEEK;
+  public static final int WORDS = MINUTES / Long.SIZE;
+
+  private final long[] words;
+
+  /**
+   * Creates a bitmap in which every minute is free.
+   */
+  public OccupancyBitmap() {
+    this.words = new long[WORDS];
+  }
+
+  /**
+   * Marks the minutes [start, end) as taken.
+   * @param start first minute of the range
+   * @param end minute right after the last minute of the range
+   */
+  void set(int start, int end) {
+    this.apply(start, end, true);
+  }
+
+  /**
+   * Marks the minutes [start, end) as free.
+   * @param start first minute of the range
+   * @param end minute right after the last minute of the range
+   */
+  void clear(int start, int end) {
+    this.apply(start, end, false);
+  }
+
+  /**
+   * Marks the minutes an event occupies as taken.
+   * @param event the event
+   */
+  void set(Event event) {
+    this.set(event.getStartMinuteOfWeek(), event.getEndMinuteOfWeek());
+  }
+
+  /**
+   * Marks the minutes an event occupies as free.
+   * @param event the event
+   */
+  void clear(Event event) {
+    this.clear(event.getStartMinuteOfWeek(), event.getEndMinuteOfWeek());
+  }
+
+  /**
+   * Checks to see whether a single minute is taken.
+   * @param minute minute since Sunday at 0000 of this week, from 0 to 20159
+   * @return true if the minute is taken; false otherwise
+   */
+  public boolean isBusy(int minute) {
+    return (this.words[minute >>> 6] & (1L << minute)) != 0;
+  }
+
+  /**
+   * Checks to see whether any minute in [start, end) is taken.
+   * @param start first minute of the range
+   * @param end minute right after the last minute of the range
+   * @return true if at least one minute in the range is taken; false otherwise
+   */
+  public boolean isBusy(int start, int end) {
+    if (start >= end) {
+      return false;
+    }
+
+    int firstWord = start >>> 6;
+    int lastWord = (end - 1) >>> 6;
+    // shifting a long by a negative amount only looks at its lowest 6 bits, so -end gives us
+    // the number of bits in the last word that belong after the range
+    long firstMask = -1L << start;
+    long lastMask = -1L >>> -end;
+
+    if (firstWord == lastWord) {
+      return (this.words[firstWord] & firstMask & lastMask) != 0;
+    } else if ((this.words[firstWord] & firstMask) != 0
+            || (this.words[lastWord] & lastMask) != 0) {
+      return true;
+    }
+
+    for (int word = firstWord + 1; word < lastWord; word++) {
+      if (this.words[word] != 0) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Combines the taken minutes of this bitmap into the given words, so that afterwards a bit
+   * in mask is set if it was set in mask or in this bitmap.
+   * @param mask words to combine this bitmap into; must have at least WORDS entries
+   */
+  public void orInto(long[] mask) {
+    for (int word = 0; word < WORDS; word++) {
+      mask[word] |= this.words[word];
+    }
+  }
+
+  private void apply(int start, int end, boolean taken) {
+    if (start >= end) {
+      return;
+    }
+
+    int firstWord = start >>> 6;
+    int lastWord = (end - 1) >>> 6;
+
+    for (int word = firstWord; word <= lastWord; word++) {
+      long mask = -1L;
+
+      if (word == firstWord) {
+        mask &= -1L << start;
+      }
+      if (word == lastWord) {
+        mask &= -1L >>> -end;
+      }
+
+      if (taken) {
+        this.words[word] |= mask;
+      } else {
+        this.words[word] &= ~mask;
+      }
+    }
+  }
+}
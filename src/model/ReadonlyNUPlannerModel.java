@@ -50,9 +50,19 @@ public interface ReadonlyNUPlannerModel {
   boolean doesEventConflictExistForManyUsers(List<String> userIds, Event event);
 
   /**
-   * Retrieves a list of existing users in the system.
+   * Retrieves the user in the system with a given userId.
    *
-   * @return list of existing users in the system
+   * @param userId name of a registered user in the system
+   * @return the user with that userId
+   * @throws IllegalArgumentException if userId is null or does not exist in the system
+   */
+  User getUser(String userId);
+
+  /**
+   * Retrieves a list of existing users in the system. The list cannot be modified; users
+   * are added with addUser() or by uploading their XML files.
+   *
+   * @return read-only list of existing users in the system
    */
-  ArrayList<User> getUsers();
+  List<User> getUsers();
 }
\ No newline at end of file
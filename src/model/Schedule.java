@@ -1,7 +1,9 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The methods in the user class simply call
@@ -16,12 +18,33 @@ import java.util.List;
  * necessarily in that user's class.
  */
 public class Schedule implements ScheduleModel {
-  // not final because when we sort the events, we are choosing to replace
-  // this.events with a new ArrayList instead of modifying the current one
-  private List<Event> events;
-
   private final String userId;
 
+  // holds the events ordered by their starting date, and indexes them by the minutes they
+  // occupy, which lets us check for time conflicts without comparing against every event
+  private final EventIntervalTree intervals;
+
+  // the same events indexed by their name, which is unique within a schedule. This is what
+  // enforces that uniqueness, and it lets us find an event by name without a scan
+  private final Map<String, Event> eventsByName;
+
+  // the events in starting date order, built from this.intervals the first time they are
+  // requested after a change. Not final because we replace it instead of modifying it, so
+  // a list that was handed out earlier never changes underneath whoever is holding it
+  private ArrayList<Event> events;
+
+  // which minutes of the week are taken. Only built the first time someone needs it (see
+  // this.getOccupancy()), after which it is updated along with every add and remove
+  private OccupancyBitmap occupancy;
+
+  // the reverse index of the planner this schedule's user is registered in, which we keep
+  // informed of every event we gain or lose. Null until the user is registered somewhere
+  private EventIndex index;
+
+  // true when the schedule has gained or lost an event since it was last saved (see
+  // this.markClean()), which tells the planner which users need their files written again
+  private boolean dirty;
+
   /**
    * Builds a schedule and sets the events to an empty ArrayList.
    */
@@ -30,18 +53,45 @@ public class Schedule implements ScheduleModel {
       throw new IllegalArgumentException("userId cannot be null or empty.");
     }
 
-    this.events = new ArrayList<>();
     this.userId = userId;
+    this.intervals = new EventIntervalTree();
+    this.eventsByName = new HashMap<>();
+    this.events = new ArrayList<>();
   }
 
   @Override
   public ArrayList<Event> getEvents() {
-    return (ArrayList<Event>)this.events;
+    if (this.events == null) {
+      this.events = this.intervals.inOrder();
+    }
+
+    return this.events;
   }
 
   @Override
   public void removeEvent(String eventName) {
-    this.events.removeIf(event -> event.getName().equals(eventName));
+    Event event = this.eventsByName.remove(eventName);
+
+    if (event == null) {
+      return;
+    }
+
+    this.intervals.remove(event);
+    this.events = null;
+    this.dirty = true;
+
+    // events in a schedule never overlap, so every minute of the removed event is free now
+    if (this.occupancy != null) {
+      this.occupancy.clear(event);
+    }
+    if (this.index != null) {
+      this.index.eventRemoved(this.userId, event);
+    }
+  }
+
+  @Override
+  public Event getEvent(String eventName) {
+    return this.eventsByName.get(eventName);
   }
 
   @Override
@@ -57,8 +107,55 @@ public class Schedule implements ScheduleModel {
         throw new IllegalStateException("Host has event name conflict!");
       } // if userId is not the same as the host of the event => ignore conflict, do not add event
     } else {
-      this.events.add(event);
-      this.sortEventsByStartingDate();
+      // the tree places the event according to its start day and start time. For example,
+      // Friday at 1000 comes before Saturday 1200, so it will come first in this.getEvents()
+      this.intervals.insert(event);
+      this.eventsByName.put(event.getName(), event);
+      this.events = null;
+      this.dirty = true;
+
+      if (this.occupancy != null) {
+        this.occupancy.set(event);
+      }
+      if (this.index != null) {
+        this.index.eventAdded(this.userId, event);
+      }
+    }
+  }
+
+  /**
+   * Checks to see whether the schedule has gained or lost an event since it was last saved.
+   * A schedule that was just built counts as changed only once an event is added to it.
+   * @return true if the schedule has changed since it was last saved; false otherwise
+   */
+  public boolean isDirty() {
+    return this.dirty;
+  }
+
+  /**
+   * Records that the schedule, as it is now, has been saved.
+   */
+  void markClean() {
+    this.dirty = false;
+  }
+
+  /**
+   * Records that the schedule has to be saved again, such as after a save failed.
+   */
+  void markDirty() {
+    this.dirty = true;
+  }
+
+  /**
+   * Starts keeping the given reverse index up to date with the events in this schedule,
+   * beginning with the events the schedule already holds.
+   * @param index the reverse index of the planner this schedule's user is registered in
+   */
+  void attachIndex(EventIndex index) {
+    this.index = index;
+
+    for (Event event : this.getEvents()) {
+      index.eventAdded(this.userId, event);
     }
   }
 
@@ -69,13 +166,7 @@ public class Schedule implements ScheduleModel {
    * @return true if a name conflict exists; false otherwise
    */
   public boolean hasEventNameConflict(String name) {
-    for (Event e : this.events) {
-      if (e.getName().equals(name)) {
-        return true;
-      }
-    }
-
-    return false;
+    return this.eventsByName.containsKey(name);
   }
 
   /**
@@ -84,125 +175,74 @@ public class Schedule implements ScheduleModel {
    * @return true if the event conflicts with another; false otherwise
    */
   public boolean hasTimeConflict(Event event) {
-    for (Event e : this.events) {
-      if (hasConflictHelper(event, e)) {
-        return true;
-      }
-    }
+    boolean overlaps = this.occupancy != null
+            ? this.occupancy.isBusy(event.getStartMinuteOfWeek(), event.getEndMinuteOfWeek())
+            : this.intervals.overlaps(event);
 
-    return false;
+    return overlaps || this.intervals.conflictsAcrossWeeks(event);
   }
 
   /**
-   * Checks to see whether a time conflict exists between two events.
-   * @param newEvent an existing event in this.events
-   * @param currentE the event we want to add to this.events
-   * @return true if a conflict exists; false otherwise
+   * Retrieves the minutes of the week taken up by the events in this schedule. The bitmap is
+   * built the first time this is called and kept up to date afterwards, so schedules that are
+   * never asked do not pay for it. The returned bitmap must not be modified.
+   * @return bitmap of the taken minutes of this schedule
    */
-  private boolean hasConflictHelper(Event newEvent, Event currentE) {
-    // stores the day of the week of the 4 days being considered
-    Day newStartDay = newEvent.getStartDate().getDay();
-    Day curStartDay = currentE.getStartDate().getDay();
-    Day newEndDay = newEvent.getEndDate().getDay();
-    Day curEndDay = currentE.getEndDate().getDay();
-
-    // stores the start and end times of the events
-    int newStartTime = Integer.parseInt(newEvent.getStartDate().getTime());
-    int newEndTime = Integer.parseInt(newEvent.getEndDate().getTime());
-    int curStartTime = Integer.parseInt(currentE.getStartDate().getTime());
-    int curEndTime = Integer.parseInt(currentE.getEndDate().getTime());
-
-    // stores the ordinal value of each day being considered
-    int daysInWeek = Day.values().length;
-    int newStartOffset = newStartDay.ordinal();
-    int newEndOffset = newEndDay.ordinal();
-    int curStartOffset = curStartDay.ordinal();
-    int curEndOffset = curEndDay.ordinal();
-
-    // if the two events have the same start and end day => check time conflict on same day
-    if (newStartDay.equals(curStartDay) && newEndDay.equals(curEndDay)) {
-      return newEvent.isConflictingTimeSameDay(currentE);
-      // if the ordinal value of the end day is less than the ordinal value of the start day
-      // this means that the event continues to the next week so add 7 to the value end
-      // day and store this in its offset
-    } else if (newEndOffset < newStartOffset) {
-      newEndOffset += daysInWeek;
-    }
-    if (curEndOffset < curStartOffset) {
-      curEndOffset += daysInWeek;
+  public OccupancyBitmap getOccupancy() {
+    if (this.occupancy == null) {
+      OccupancyBitmap bitmap = new OccupancyBitmap();
+      this.getEvents().forEach(bitmap::set);
+      this.occupancy = bitmap;
     }
 
-    // if end day is the same as the start day then check if the then end time occurs before the
-    // start time, which means the event spans an entire week so add 7 to the end day value
-    if (newEndOffset == newStartOffset && newEndTime < newStartTime) {
-      newEndOffset += daysInWeek;
-    }
-    if (curEndOffset == curStartOffset && curEndTime < curStartTime) {
-      curEndOffset += daysInWeek;
-    }
-    // checking if there is overlap in ranges of events using updated offset values
-    if (!(newEndOffset <= curStartOffset || newStartOffset >= curEndOffset)) {
-      return true;
-    } else if (newStartDay.equals(curEndDay)) {
-      return newStartTime < curEndTime;
-    } else if (newEndDay.equals(curStartDay)) {
-      return newEndTime > curStartTime;
-    }
-    return false;
+    return this.occupancy;
   }
 
   /**
-   * Inserts an event into a sorted list of events and sorts it according to its start day
-   * and start time. For example, Friday at 1000 comes before Saturday 1200, so it will come
-   * before in the ArrayList to be returned.
-   * @param e the event to be sorted
-   * @param sortedEvents list of sorted events
+   * Checks to see whether this user is in the middle of an event at a given date. An event
+   * that continues into the following week also keeps the user busy during the part of that
+   * week it covers.
+   * @param date the date we are checking
+   * @return true if an event is taking place at that minute; false otherwise
    */
-  private void sortEventsByStartingDateInsertionSort(Event e, List<Event> sortedEvents) {
-    sortedEvents.add(e);
-
-    int i = sortedEvents.size() - 1;
-
-    int startDay = Day.getIndexByDay(e.getStartDate().getDay());
-    int totalMinutes = e.getStartDate().getTotalMinutes();
-
-    while (i > 0) {
-      int targetStartDay = Day.getIndexByDay(sortedEvents.get(i - 1)
-              .getStartDate().getDay());
-      int targetTotalMinutes = sortedEvents.get(i - 1).getStartDate().getTotalMinutes();
-
-      if (startDay < targetStartDay
-              || (startDay == targetStartDay && totalMinutes < targetTotalMinutes)) {
-        Event temp = sortedEvents.get(i - 1);
-        sortedEvents.set(i - 1, e);
-        sortedEvents.set(i, temp);
-      }
-
-      i--;
-    }
+  public boolean isBusyAt(Date date) {
+    OccupancyBitmap bitmap = this.getOccupancy();
+    int minute = date.getMinuteOfWeek();
+    return bitmap.isBusy(minute) || bitmap.isBusy(minute + Date.MINUTES_IN_WEEK);
   }
 
   /**
-   * Builds a sorted events list and sets this.events to the new sorted list.
+   * Retrieves every event that is occurring at a given date, in starting date order. An event
+   * is occurring at a date if the date falls between its start and end, inclusive, during
+   * either this week or (for events continuing into it) the following week.
+   * @param date the date we are checking
+   * @return list of events occurring at that date
    */
-  private void sortEventsByStartingDate() {
-    ArrayList<Event> sortedEvents = new ArrayList<>();
-
-    for (Event event : this.events) {
-      this.sortEventsByStartingDateInsertionSort(event, sortedEvents);
+  public ArrayList<Event> getEventsOccurringAt(Date date) {
+    OccupancyBitmap bitmap = this.getOccupancy();
+    int minute = date.getMinuteOfWeek();
+    ArrayList<Event> occurringEvents = new ArrayList<>();
+
+    // an event covering this minute sets its bit, and an event ending right at this minute
+    // sets the bit of the minute before it. If none of those bits are set, in this week or
+    // the next, nothing can be occurring and we can skip looking through the events
+    if (!bitmap.isBusy(Math.max(0, minute - 1), minute + 1)
+            && !bitmap.isBusy(minute + Date.MINUTES_IN_WEEK - 1,
+            minute + Date.MINUTES_IN_WEEK + 1)) {
+      return occurringEvents;
     }
 
-    this.events = sortedEvents;
+    this.intervals.collectOccurringAt(minute, occurringEvents);
+    return occurringEvents;
   }
 
   @Override
   public String toString() {
     // responsible for printing out this user's schedule. This method is tested via
     // the User class toString() method, where this.toString() is called from.
-    // we do not need to call sortEventsByStartingDate() because we can assume
-    // that the dates are already sorted according to starting date. Each time
-    // that an event is added to this.events, it gets sorted according to its starting date.
-    // This is taken care of in this.addEvent()
+    // we do not need to sort the events because they are always kept sorted
+    // according to starting date. Each time that an event is added, it gets placed
+    // according to its starting date. This is taken care of in this.addEvent()
 
     List<ArrayList<Event>> eventsByDays = this.splitEventsIntoDifferentDays();
     String textualSchedule = "User: " + this.userId + "\n";
@@ -36,4 +36,12 @@ public interface ScheduleModel {
    * @param eventName name of event to be removed
    */
   void removeEvent(String eventName);
+
+  /**
+   * Retrieves the event with a given name. Event names are unique within a schedule, so there
+   * is at most one such event.
+   * @param eventName name of the event
+   * @return the event with that name; null if no such event exists
+   */
+  Event getEvent(String eventName);
 }
@@ -1,6 +1,8 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Represents a User in a scheduling-based system. At the moment, User class does not
@@ -15,7 +17,17 @@ import java.util.ArrayList;
  */
 public class User implements UserModel {
   private final String userId;
-  private final Schedule schedule;
+  // null until the schedule is first needed, if the user was created with a loader
+  private Schedule schedule;
+  // produces the events of the schedule when it is first needed; null once it has been used
+  private Supplier<? extends List<Event>> eventLoader;
+  // the keys of the events the loader will produce, if we were told them; lets the reverse
+  // index know what this user holds before the schedule is built. Null once it is built
+  private List<EventKey> heldEvents;
+  // the reverse index the schedule reports to once it exists; see attachIndex()
+  private EventIndex index;
+  // true if the loader failed, which leaves the user with a schedule that must not be saved
+  private boolean loadFailed;
 
   /**
    * Creates a new user object with a userId that represents a user.
@@ -36,6 +48,121 @@ public class User implements UserModel {
     this.schedule = new Schedule(userId);
   }
 
+  /**
+   * Creates a new user object whose schedule is only built the first time it is needed, which
+   * is the first time any of the methods below besides getUserId() is called. This is useful
+   * when loading a large number of users, most of whom may never be looked at. If the loader
+   * fails (i.e. the file it reads from has changed for the worse), the failure is reported on
+   * System.err and the user is left with an empty schedule, rather than failing again every
+   * time anyone looks at them. Such a user is never saved (see hasFailedToLoad()), so that the
+   * empty schedule, or whatever is added to it later, does not overwrite their file.
+   * @param userId unique identifier of user
+   * @param eventLoader produces the events on the user's schedule; called at most once
+   */
+  public User(String userId, Supplier<? extends List<Event>> eventLoader) {
+    if (userId == null || eventLoader == null) {
+      throw new IllegalArgumentException("Name and events cannot be null.");
+    } else if (userId.isEmpty()) {
+      throw new IllegalArgumentException("Name cannot be an empty String.");
+    }
+
+    this.userId = userId;
+    this.eventLoader = eventLoader;
+  }
+
+  /**
+   * Creates a new user object whose schedule is only built the first time it is needed, just
+   * like the constructor above, for when the events the schedule will hold are already known
+   * by their keys. Registering such a user lets the planner know which events they hold
+   * without building their schedule (see NUPlanner.modifyEvent()). Should the schedule end up
+   * without some of these events after all, the planner is told once it has been built.
+   * @param userId unique identifier of user
+   * @param eventLoader produces the events on the user's schedule; called at most once
+   * @param heldEvents the keys of the events eventLoader will produce
+   */
+  public User(String userId, Supplier<? extends List<Event>> eventLoader,
+              List<EventKey> heldEvents) {
+    this(userId, eventLoader);
+
+    if (heldEvents == null) {
+      throw new IllegalArgumentException("heldEvents cannot be null.");
+    }
+
+    this.heldEvents = heldEvents;
+  }
+
+  /**
+   * Checks to see whether the user's schedule has been built yet.
+   * @return true if the schedule exists; false if it will be built the next time it is needed
+   */
+  synchronized boolean isLoaded() {
+    return this.schedule != null;
+  }
+
+  /**
+   * Checks to see whether a reverse index attached to this user knows every event they hold,
+   * which is the case once the schedule has been built, or if the keys of the events it will
+   * hold were given when the user was created.
+   * @return true if the index can be trusted without building the schedule; false otherwise
+   */
+  synchronized boolean isIndexable() {
+    return this.schedule != null || this.heldEvents != null;
+  }
+
+  /**
+   * Has the user's schedule keep the given reverse index up to date, as soon as the schedule
+   * exists. Until then, the index is told about the events the schedule will hold, if we know
+   * them.
+   * @param index the reverse index of the planner this user is registered in
+   */
+  synchronized void attachIndex(EventIndex index) {
+    this.index = index;
+
+    if (this.schedule != null) {
+      this.schedule.attachIndex(index);
+    } else if (this.heldEvents != null) {
+      for (EventKey key : this.heldEvents) {
+        index.eventAdded(this.userId, key);
+      }
+    }
+  }
+
+  /**
+   * Checks to see whether the user's schedule has changed since it was last saved. A user
+   * whose schedule has not been loaded yet cannot have changed.
+   * @return true if the schedule needs to be saved again; false otherwise
+   */
+  synchronized boolean isDirty() {
+    return this.schedule != null && !this.loadFailed && this.schedule.isDirty();
+  }
+
+  /**
+   * Checks to see whether building the user's schedule failed. The user is left with an empty
+   * schedule, which does not hold what they actually have, so it must never be saved.
+   * @return true if the loader failed; false if it succeeded or has not been used yet
+   */
+  synchronized boolean hasFailedToLoad() {
+    return this.loadFailed;
+  }
+
+  /**
+   * Records that the user's schedule, as it is now, has been saved.
+   */
+  synchronized void markClean() {
+    if (this.schedule != null) {
+      this.schedule.markClean();
+    }
+  }
+
+  /**
+   * Records that the user's schedule has to be saved again.
+   */
+  synchronized void markDirty() {
+    if (this.schedule != null) {
+      this.schedule.markDirty();
+    }
+  }
+
   @Override
   public String getUserId() {
     return this.userId;
@@ -43,22 +170,72 @@ public class User implements UserModel {
 
   @Override
   public void addEvent(Event e) {
-    this.schedule.addEvent(e);
+    this.getSchedule().addEvent(e);
   }
 
   @Override
   public ArrayList<Event> getEvents() {
-    return this.schedule.getEvents();
+    return this.getSchedule().getEvents();
   }
 
   @Override
-  public Schedule getSchedule() {
+  public synchronized Schedule getSchedule() {
+    if (this.schedule == null) {
+      Schedule loaded = new Schedule(this.userId);
+
+      try {
+        this.eventLoader.get().forEach(loaded::addEvent);
+      } catch (RuntimeException ex) {
+        // only this user is affected, and trying again would only fail again
+        System.err.println("Could not load the schedule of " + this.userId + ": "
+            + ex.getMessage());
+        loaded = new Schedule(this.userId);
+        this.loadFailed = true;
+      }
+
+      // the events came from wherever the user was saved, so they do not need saving again
+      loaded.markClean();
+
+      if (this.index != null) {
+        this.forgetMissingEvents(loaded);
+        loaded.attachIndex(this.index);
+      }
+
+      this.eventLoader = null;
+      this.heldEvents = null;
+      this.schedule = loaded;
+    }
+
     return this.schedule;
   }
 
+  /**
+   * Tells the index that this user does not hold the events they were said to hold, but that
+   * did not make it into their schedule after all.
+   * @param loaded the schedule that was just built
+   */
+  private void forgetMissingEvents(Schedule loaded) {
+    if (this.heldEvents == null) {
+      return;
+    }
+
+    for (EventKey key : this.heldEvents) {
+      Event event = loaded.getEvent(key.getName());
+
+      if (event == null || !EventKey.of(event).equals(key)) {
+        this.index.eventRemoved(this.userId, key);
+      }
+    }
+  }
+
   @Override
   public void removeEvent(String eventName) {
-    this.schedule.removeEvent(eventName);
+    this.getSchedule().removeEvent(eventName);
+  }
+
+  @Override
+  public Event getEvent(String eventName) {
+    return this.getSchedule().getEvent(eventName);
   }
 
   @Override
@@ -72,7 +249,7 @@ public class User implements UserModel {
     // method should yield the same result as Schedule.toString(). In our tests, we call this
     // method to test the textual rendering instead of Schedule.toString(), though we could
     // easily do that as well. To avoid testing the same method twice, we just test this one.
-    return this.schedule.toString();
+    return this.getSchedule().toString();
   }
 }
 
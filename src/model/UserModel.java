@@ -39,4 +39,12 @@ public interface UserModel {
    * @param eventName name of event to be removed
    */
   void removeEvent(String eventName);
+
+  /**
+   * Retrieves the event with the given name from a user's schedule. Calls the getEvent()
+   * method in the Schedule class.
+   * @param eventName name of the event
+   * @return the event with that name; null if the user has no such event
+   */
+  Event getEvent(String eventName);
 }
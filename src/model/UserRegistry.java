@@ -0,0 +1,125 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the collection of users that have been loaded into a NUPlanner. Users are
+ * indexed by their userId so that looking one up does not require walking every user
+ * in the system. We also keep the users in the order in which they were registered, which
+ * keeps the list handed out by NUPlanner.getUsers() stable as new users are added. That list
+ * is a read-only view, so users can only join through register().
+ * Every registered user's schedule reports to a shared EventIndex, so the registry can also
+ * tell which users currently hold a given event.
+ */
+class UserRegistry {
+  private final Map<String, User> usersById;
+  private final ArrayList<User> orderedUsers;
+  private final List<User> orderedUsersView;
+  private final EventIndex eventIndex;
+  // users registered before their schedule was built, without telling us which events they
+  // hold (see User's lazy constructors)
+  private final List<User> unloadedUsers;
+
+  /**
+   * Creates an empty registry of users.
+   */
+  UserRegistry() {
+    this.usersById = new HashMap<>();
+    this.orderedUsers = new ArrayList<>();
+    this.orderedUsersView = Collections.unmodifiableList(this.orderedUsers);
+    this.eventIndex = new EventIndex();
+    this.unloadedUsers = new ArrayList<>();
+  }
+
+  /**
+   * Creates a registry containing the given users, in the given order.
+   * @param users list of users to be registered
+   * @throws IllegalArgumentException if two users share the same userId
+   */
+  UserRegistry(List<User> users) {
+    this.usersById = new HashMap<>(Math.max(16, users.size() * 2));
+    this.orderedUsers = new ArrayList<>(users.size());
+    this.orderedUsersView = Collections.unmodifiableList(this.orderedUsers);
+    this.eventIndex = new EventIndex();
+    this.unloadedUsers = new ArrayList<>();
+
+    for (User user : users) {
+      this.register(user);
+    }
+  }
+
+  /**
+   * Retrieves the user with a matching userId.
+   * @param userId id of the user we are searching for
+   * @return the user with a matching userId, otherwise null
+   */
+  User find(String userId) {
+    return this.usersById.get(userId);
+  }
+
+  /**
+   * Checks to see whether a user with the given userId has been registered.
+   * @param userId id of the user we are searching for
+   * @return true if the user exists; false otherwise
+   */
+  boolean contains(String userId) {
+    return this.usersById.containsKey(userId);
+  }
+
+  /**
+   * Registers a new user, placing them after every user that was registered before them.
+   * @param user the user to be registered
+   * @throws IllegalArgumentException if a user with the same userId already exists
+   */
+  void register(User user) {
+    if (this.usersById.putIfAbsent(user.getUserId(), user) != null) {
+      throw new IllegalArgumentException("User already exists in system.");
+    }
+
+    this.orderedUsers.add(user);
+    user.attachIndex(this.eventIndex);
+
+    if (!user.isIndexable()) {
+      this.unloadedUsers.add(user);
+    }
+  }
+
+  /**
+   * Retrieves the registered users whose schedules hold an event, in the order in which they
+   * received it.
+   * @param key the key of the event
+   * @return list of users holding the event
+   */
+  List<User> holdersOf(EventKey key) {
+    // a user whose schedule has not been built yet, and whose events we were not told about,
+    // has not told the index about any of them, so we have to build those schedules before
+    // we can trust the index. Each user leaves the list before their schedule is built, so a
+    // schedule that cannot be built is only ever tried once
+    while (!this.unloadedUsers.isEmpty()) {
+      this.unloadedUsers.remove(this.unloadedUsers.size() - 1).getSchedule();
+    }
+
+    Set<String> holderIds = this.eventIndex.holdersOf(key);
+    List<User> holders = new ArrayList<>(holderIds.size());
+
+    for (String holderId : holderIds) {
+      holders.add(this.usersById.get(holderId));
+    }
+
+    return holders;
+  }
+
+  /**
+   * Retrieves every registered user, in the order in which they were registered. The list
+   * cannot be modified, but it reflects users registered after it was handed out.
+   * @return read-only list of registered users
+   */
+  List<User> asList() {
+    return this.orderedUsersView;
+  }
+}
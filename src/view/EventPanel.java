@@ -477,9 +477,9 @@ public class EventPanel extends JPanel {
               this.eventNameTextField.getText(),
               this.locationTextField.getText(),
               Objects.equals(this.locationComboBox.getSelectedItem(), "is online"),
-              new Date(Day.getDay((String) this.startingDayComboBox.getSelectedItem()),
+              Date.of(Day.getDay((String) this.startingDayComboBox.getSelectedItem()),
                       this.startingTimeTextField.getText()),
-              new Date(Day.getDay((String) this.endingDayComboBox.getSelectedItem()),
+              Date.of(Day.getDay((String) this.endingDayComboBox.getSelectedItem()),
                       this.endingTimeTextField.getText()),
               invitedUsers
       );
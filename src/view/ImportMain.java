@@ -0,0 +1,88 @@
+package view;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import controller.AnytimeStrategy;
+import controller.NUPlannerController;
+import controller.ScheduleDirectoryWatcher;
+import controller.SchedulingStrategy;
+import controller.WorkHoursStrategy;
+import controller.WriteBehindSaver;
+import model.NUPlanner;
+
+/**
+ * Represents a runnable class that uploads every XML file in a directory at once, and then
+ * spins up the GUI for the scheduling system with the users that were uploaded. This is
+ * meant for bringing a large number of users into the system, which would be tedious to do
+ * one file at a time from the GUI. Files that could not be uploaded are reported, but do not
+ * stop the rest of the directory from being uploaded. Everyone who was uploaded is saved to
+ * a snapshot, which Main then starts up from. While the program runs, the directory is
+ * watched, and users whose files are changed or added there are brought up to date.
+ */
+public class ImportMain {
+  /**
+   * command line entry point for uploading a directory of XML files and running the GUI.
+   * The first argument is the scheduling strategy ("anytime" or "workhours"), the second is
+   * the directory holding the XML files, and an optional third argument of "startSat" starts
+   * the week on Saturday, just like in Main.
+   * @param args command line arguments
+   */
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("Scheduling strategy and directory must be provided.");
+    }
+
+    String schedulingStrategy = args[0];
+
+    if (!schedulingStrategy.equals("anytime") && !schedulingStrategy.equals("workhours")) {
+      throw new IllegalArgumentException("Invalid strategy type.");
+    }
+
+    File[] files = new File(args[1]).listFiles((dir, name) -> name.endsWith(".xml"));
+
+    if (files == null) {
+      throw new IllegalArgumentException("Invalid directory.");
+    }
+
+    // sorting the files keeps the order users are added in the same from one run to the next
+    Arrays.sort(files);
+    List<String> fileNames = new ArrayList<>(files.length);
+    for (File file : files) {
+      fileNames.add(file.getPath());
+    }
+
+    boolean startOnSat = args.length == 3 && args[2].equals("startSat");
+
+    NUPlanner model = new NUPlanner(false);
+    Map<String, String> failures = model.uploadXMLFiles(fileNames);
+
+    System.out.println("Uploaded " + (fileNames.size() - failures.size()) + " of "
+            + fileNames.size() + " files.");
+    failures.forEach((fileName, reason) ->
+            System.err.println("Could not upload " + fileName + ": " + reason));
+
+    // the next time Main starts up, it can load everyone from the snapshot instead of
+    // reading every file again
+    model.saveSnapshot(Main.SNAPSHOT_FILE);
+    model.openJournal(Main.JOURNAL_FILE);
+
+    SchedulingStrategy strategy = schedulingStrategy.equals("anytime")
+            ? new AnytimeStrategy(model) : new WorkHoursStrategy(model);
+
+    MainSystemFrame view = new MainSystemFrame(model, startOnSat);
+    NUPlannerController controller = new NUPlannerController(view, strategy);
+    // users are saved in the background as they change
+    WriteBehindSaver saver = new WriteBehindSaver(model, Main.SAVE_WINDOW_MILLIS);
+    Main.closeOnExit(model, saver);
+    controller.setSaver(saver);
+    controller.launch(model);
+
+    // files exported to the directory from now on are picked up while the program runs
+    ScheduleDirectoryWatcher watcher = new ScheduleDirectoryWatcher(model, view, args[1]);
+    watcher.start();
+  }
+}
@@ -1,17 +1,26 @@
 package view;
 
+import java.io.File;
+
 import controller.AnytimeStrategy;
 import controller.NUPlannerController;
 import controller.SchedulingStrategy;
 import controller.WorkHoursStrategy;
+import controller.WriteBehindSaver;
 import model.NUPlanner;
-import model.NUPlannerModel;
 
 /**
  * Represents the runnable class, which we can run to spin up
  * the GUI for the scheduling system.
  */
 public class Main {
+  // where the planner is saved as a snapshot for fast startup; see ImportMain
+  static final String SNAPSHOT_FILE = "nuplanner.snapshot";
+  // where every change made since the snapshot was saved is recorded
+  static final String JOURNAL_FILE = "nuplanner.journal";
+  // how long changes are gathered up before the users they affect are saved
+  static final long SAVE_WINDOW_MILLIS = 500;
+
   /**
    * command line entry point for running the GUI. In here, we create a new instance
    * of the MainSystemFrame and pass in a readonly NU Planner model.
@@ -30,13 +39,49 @@ public class Main {
 
     boolean startOnSat = args.length == 2 && args[1].equals("startSat");
 
-    NUPlannerModel model = new NUPlanner(true);
+    // a snapshot loads much faster than the XML files, so we start from one when it exists.
+    // Otherwise we start from the default users and save them to a snapshot, which the
+    // journal of changes made from now on builds on
+    NUPlanner model;
+    if (new File(SNAPSHOT_FILE).exists()) {
+      model = NUPlanner.fromSnapshot(SNAPSHOT_FILE);
+    } else {
+      model = new NUPlanner(true);
+      model.saveSnapshot(SNAPSHOT_FILE);
+    }
+    model.openJournal(JOURNAL_FILE);
 
     SchedulingStrategy strategy = schedulingStrategy.equals("anytime")
             ? new AnytimeStrategy(model) : new WorkHoursStrategy(model);
 
     MainSystemFrame view = new MainSystemFrame(model, startOnSat);
     NUPlannerController controller = new NUPlannerController(view, strategy);
+    // users are saved in the background as they change
+    WriteBehindSaver saver = new WriteBehindSaver(model, SAVE_WINDOW_MILLIS);
+    closeOnExit(model, saver);
+    controller.setSaver(saver);
     controller.launch(model);
   }
+
+  /**
+   * Saves whatever is still waiting to be saved when the program ends, and then checkpoints
+   * the model: it is saved to a new snapshot, which starts its journal over, so the journal
+   * only ever holds the changes made since the program last started. Closing the window ends
+   * the program through System.exit(), which still runs this. If the program ends without
+   * it, the journal simply keeps its changes until next time.
+   * @param model the model the program runs on, which has a journal open
+   * @param saver the saver of the model's users
+   */
+  static void closeOnExit(NUPlanner model, WriteBehindSaver saver) {
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      saver.close();
+
+      try {
+        model.saveSnapshot(SNAPSHOT_FILE);
+      } catch (RuntimeException ex) {
+        // the journal was not started over, so nothing it holds is lost
+        System.err.println("Could not save the snapshot: " + ex.getMessage());
+      }
+    }));
+  }
 }
@@ -7,7 +7,7 @@ import javax.swing.JComboBox;
 import javax.swing.JButton;
 import java.awt.Graphics;
 import java.awt.GridLayout;
-import java.util.ArrayList;
+import java.util.List;
 import model.ReadonlyNUPlannerModel;
 import model.User;
 
@@ -101,7 +101,7 @@ public class ScheduleButtonsPanel extends JPanel {
     // add default value "<none>" like the screen in assignment
     userNameComboBox.addItem("<none>");
     // Getting the users to populate the combo box
-    ArrayList<User> users = model.getUsers();
+    List<User> users = model.getUsers();
     // Populate the combo box with user IDs
     for (User user : users) {
       userNameComboBox.addItem(user.getUserId());
@@ -74,4 +74,40 @@ public class DateTests {
     Date d3 = new Date(Day.Wednesday, "1750");
     Assert.assertEquals(17 * 60 + 50, d3.getTotalMinutes());
   }
+
+  @Test
+  public void testGetMinuteOfWeek() {
+    Date d1 = new Date(Day.Sunday, "0000");
+    Assert.assertEquals(0, d1.getMinuteOfWeek());
+    Date d2 = new Date(Day.Monday, "0130");
+    Assert.assertEquals(1440 + 90, d2.getMinuteOfWeek());
+    Date d3 = new Date(Day.Saturday, "2359");
+    Assert.assertEquals(7 * 1440 - 1, d3.getMinuteOfWeek());
+  }
+
+  @Test
+  public void testGetTime() {
+    Assert.assertEquals("0000", new Date(Day.Sunday, "0000").getTime());
+    Assert.assertEquals("0905", new Date(Day.Tuesday, "0905").getTime());
+    Assert.assertEquals("2359", new Date(Day.Saturday, "2359").getTime());
+  }
+
+  @Test
+  public void testOfReturnsSharedDates() {
+    Date d1 = Date.of(Day.Wednesday, "1045");
+    Assert.assertSame(d1, Date.of(Day.Wednesday, 10 * 60 + 45));
+    Assert.assertSame(d1, Date.ofMinuteOfWeek(3 * 1440 + 10 * 60 + 45));
+    Assert.assertEquals(Day.Wednesday, d1.getDay());
+    Assert.assertEquals("1045", d1.getTime());
+  }
+
+  @Test
+  public void testInvalidOf() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> Date.of(Day.Monday, "2400"));
+    Assert.assertThrows(IllegalArgumentException.class, () -> Date.of(Day.Monday, "10a0"));
+    Assert.assertThrows(IllegalArgumentException.class, () -> Date.of(Day.Monday, 1440));
+    Assert.assertThrows(IllegalArgumentException.class, () -> Date.of(Day.Monday, -1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> Date.of(null, "1000"));
+    Assert.assertThrows(IllegalArgumentException.class, () -> Date.ofMinuteOfWeek(10080));
+  }
 }
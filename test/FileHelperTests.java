@@ -1,12 +1,18 @@
 import model.NUPlanner;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.w3c.dom.Document;
 
 import java.io.File;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -16,7 +22,9 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
+import helpers.EventRecord;
 import helpers.FileHelper;
+import helpers.XMLScheduleReader;
 import model.Date;
 import model.Day;
 import model.Event;
@@ -139,5 +147,150 @@ public class FileHelperTests {
       FileHelper.writeToFile(null, null);
     });
   }
-}
 
+  @Test
+  public void testXMLScheduleReaderReadsEveryEvent() {
+    try (XMLScheduleReader reader = new XMLScheduleReader("bobby.xml")) {
+      Assert.assertEquals("bobby", reader.getUserId());
+
+      Assert.assertTrue(reader.hasNextEvent());
+      Event sleeping = reader.nextEvent();
+      Assert.assertEquals("Sleeping", sleeping.getName());
+      Assert.assertEquals("West A", sleeping.getLocation());
+      Assert.assertFalse(sleeping.getOnline());
+      Assert.assertEquals(Day.Monday, sleeping.getStartDate().getDay());
+      Assert.assertEquals("1500", sleeping.getStartDate().getTime());
+      Assert.assertEquals(Day.Wednesday, sleeping.getEndDate().getDay());
+      Assert.assertEquals("1800", sleeping.getEndDate().getTime());
+      Assert.assertEquals(List.of("bobby"), sleeping.getInvitedUsers());
+
+      Assert.assertTrue(reader.hasNextEvent());
+      Assert.assertEquals("Dinner", reader.nextEvent().getName());
+      Assert.assertFalse(reader.hasNextEvent());
+      Assert.assertThrows(IllegalStateException.class, reader::nextEvent);
+    }
+  }
+
+  @Test
+  public void testReadUserScheduleFromXMLReturnsRecords() {
+    List<EventRecord> records = FileHelper.readUserScheduleFromXML("bobby.xml");
+    Assert.assertEquals(2, records.size());
+
+    EventRecord sleeping = records.get(0);
+    Assert.assertEquals("Sleeping", sleeping.getName());
+    Assert.assertEquals("West A", sleeping.getPlace());
+    Assert.assertFalse(sleeping.isOnline());
+    Assert.assertEquals(Date.of(Day.Monday, "1500").getMinuteOfWeek(),
+            sleeping.getStartMinuteOfWeek());
+    Assert.assertEquals(Date.of(Day.Wednesday, "1800").getMinuteOfWeek(),
+            sleeping.getEndMinuteOfWeek());
+    Assert.assertEquals(1, sleeping.getInviteeCount());
+
+    EventRecord dinner = records.get(1);
+    Assert.assertEquals(3, dinner.getInviteeCount());
+    Event event = dinner.toEvent();
+    Assert.assertEquals("Dinner", event.getName());
+    Assert.assertEquals(List.of("bobby", "Sheena", "Guissepe"), event.getInvitedUsers());
+    // the same invitee read twice is the same string
+    Assert.assertSame(sleeping.toEvent().getInvitedUsers().get(0),
+            event.getInvitedUsers().get(0));
+  }
+
+  @Test
+  public void testXMLScheduleReaderWithInvalidFile() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> new XMLScheduleReader(null));
+    Assert.assertThrows(IllegalStateException.class, () ->
+            new XMLScheduleReader("unknownFile.xml"));
+  }
+
+  @Test
+  public void testWriteToFileEscapesSpecialCharacters() throws Exception {
+    User user = new User("Tom & \"Jerry\"");
+    user.addEvent(new Event("<Lunch> & Learn",
+            "Curry \"Student\" Center", false,
+            new Date(Day.Monday, "1200"),
+            new Date(Day.Monday, "1300"),
+            new ArrayList<>(List.of("Tom & \"Jerry\""))));
+
+    FileHelper.writeToFile(user, "escapedUser.xml");
+
+    try (XMLScheduleReader reader = new XMLScheduleReader("escapedUser.xml")) {
+      Assert.assertEquals("Tom & \"Jerry\"", reader.getUserId());
+      Event event = reader.nextEvent();
+      Assert.assertEquals("<Lunch> & Learn", event.getName());
+      Assert.assertEquals("Curry \"Student\" Center", event.getLocation());
+      Assert.assertEquals(List.of("Tom & \"Jerry\""), event.getInvitedUsers());
+    } finally {
+      new File("escapedUser.xml").delete();
+    }
+
+    // no temporary file is left behind
+    String[] leftOver = new File(".").list((dir, name) ->
+            name.startsWith("escapedUser.xml") && name.endsWith(".tmp"));
+    Assert.assertEquals(0, leftOver.length);
+  }
+
+  @Test
+  public void testConcurrentWritesOfTheSameFile() throws Exception {
+    List<Thread> writers = new ArrayList<>();
+    List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+    for (int writer = 0; writer < 8; writer++) {
+      User user = new User("concurrentUser");
+      user.addEvent(new Event("Event " + writer, "Snell Library", false,
+              new Date(Day.Monday, "1200"),
+              new Date(Day.Monday, "1300"),
+              new ArrayList<>(List.of("concurrentUser"))));
+      Thread thread = new Thread(() -> {
+        try {
+          for (int write = 0; write < 20; write++) {
+            FileHelper.writeToFile(user, "concurrentUser.xml");
+          }
+        } catch (Throwable ex) {
+          failures.add(ex);
+        }
+      });
+      writers.add(thread);
+      thread.start();
+    }
+
+    try {
+      for (Thread thread : writers) {
+        thread.join();
+      }
+
+      // every write went through whole, and the file holds exactly one of them
+      Assert.assertEquals(List.of(), failures);
+      try (XMLScheduleReader reader = new XMLScheduleReader("concurrentUser.xml")) {
+        Assert.assertEquals("concurrentUser", reader.getUserId());
+        Assert.assertTrue(reader.nextEvent().getName().startsWith("Event "));
+        Assert.assertFalse(reader.hasNextEvent());
+      }
+    } finally {
+      new File("concurrentUser.xml").delete();
+    }
+  }
+
+  @Test
+  public void testWriteToFileKeepsPermissionsOfTheFileItReplaces() throws Exception {
+    Path file = Paths.get("permissionsUser.xml");
+    User user = new User("permissionsUser");
+    user.addEvent(new Event("Lunch", "Snell Library", false,
+            new Date(Day.Monday, "1200"),
+            new Date(Day.Monday, "1300"),
+            new ArrayList<>(List.of("permissionsUser"))));
+
+    try {
+      FileHelper.writeToFile(user, file.toString());
+      Assume.assumeTrue(file.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+      // a file anyone may read, unlike a temporary file, stays that way once it is replaced
+      Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-rw-r--"));
+      FileHelper.writeToFile(user, file.toString());
+      Assert.assertEquals("rw-rw-r--",
+              PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+    } finally {
+      new File("permissionsUser.xml").delete();
+    }
+  }
+}
@@ -5,9 +5,15 @@ import org.junit.Test;
 import org.w3c.dom.Document;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -16,6 +22,9 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
+import helpers.FileHelper;
+import helpers.MutationJournal;
+import helpers.Snapshot;
 import model.Date;
 import model.Day;
 import model.Event;
@@ -94,6 +103,530 @@ public class NUPlannerTests {
     Assert.assertThrows(IllegalStateException.class, () -> planner.uploadXMLFile("whatever"));
   }
 
+  @Test
+  public void testUploadXMLFileFailsWhenUserAlreadyExists() {
+    NUPlanner planner = new NUPlanner(false);
+    planner.uploadXMLFile("bobby.xml");
+    Assert.assertEquals(2, planner.getUser("bobby").getEvents().size());
+
+    Assert.assertThrows(IllegalStateException.class, () -> planner.uploadXMLFile("bobby.xml"));
+    Assert.assertEquals(1, planner.getUsers().size());
+    Assert.assertEquals(2, planner.getUser("bobby").getEvents().size());
+  }
+
+  @Test
+  public void testUploadXMLFiles() {
+    NUPlanner planner = new NUPlanner(false);
+    planner.uploadXMLFile("jimmy.xml");
+
+    Map<String, String> failures = planner.uploadXMLFiles(
+            List.of("bobby.xml", "unknownFile.xml", "jimmy.xml", "adrian.xml"));
+
+    // the files that failed do not stop the others from being uploaded
+    Assert.assertEquals(List.of("unknownFile.xml", "jimmy.xml"),
+            new ArrayList<>(failures.keySet()));
+    Assert.assertEquals("Cannot upload a new XML file for a user that "
+            + "already exists in the system.", failures.get("jimmy.xml"));
+    Assert.assertEquals(3, planner.getUsers().size());
+    Assert.assertEquals("jimmy", planner.getUsers().get(0).getUserId());
+    Assert.assertEquals("bobby", planner.getUsers().get(1).getUserId());
+    Assert.assertEquals(2, planner.getUser("bobby").getEvents().size());
+
+    Assert.assertTrue(planner.uploadXMLFiles(List.of()).isEmpty());
+    Assert.assertThrows(IllegalArgumentException.class, () -> planner.uploadXMLFiles(null));
+  }
+
+  @Test
+  public void testSaveAndLoadSnapshot() {
+    NUPlanner planner = new NUPlanner(false);
+    planner.uploadXMLFile("bobby.xml");
+    planner.addUser(new User("Sheena"));
+    planner.addEvent("Sheena", new Event("Caf\u00e9 & Chat",
+            "Online", true,
+            new Date(Day.Friday, "2300"),
+            new Date(Day.Saturday, "0100"),
+            new ArrayList<>(List.of("Sheena", "bobby"))));
+    planner.saveSnapshot("testPlanner.snapshot");
+
+    try {
+      NUPlanner loaded = NUPlanner.fromSnapshot("testPlanner.snapshot");
+
+      Assert.assertEquals(2, loaded.getUsers().size());
+      Assert.assertEquals("bobby", loaded.getUsers().get(0).getUserId());
+      Assert.assertEquals(planner.displayUserSchedule("bobby"),
+              loaded.displayUserSchedule("bobby"));
+      Assert.assertEquals(planner.displayUserSchedule("Sheena"),
+              loaded.displayUserSchedule("Sheena"));
+
+      // an event shared by several users is still a single event once loaded
+      Event shared = loaded.getUser("Sheena").getEvent("Caf\u00e9 & Chat");
+      Assert.assertSame(shared, loaded.getUser("bobby").getEvent("Caf\u00e9 & Chat"));
+      Assert.assertTrue(shared.getOnline());
+      Assert.assertEquals(Day.Friday, shared.getStartDate().getDay());
+      Assert.assertEquals("0100", shared.getEndDate().getTime());
+    } finally {
+      new File("testPlanner.snapshot").delete();
+    }
+
+    Assert.assertThrows(IllegalStateException.class, () ->
+            NUPlanner.fromSnapshot("bobby.xml"));
+    Assert.assertThrows(IllegalStateException.class, () ->
+            NUPlanner.fromSnapshot("unknown.snapshot"));
+  }
+
+  @Test
+  public void testModifyEventAfterLoadingSnapshot() {
+    NUPlanner planner = new NUPlanner(false);
+    planner.addUser(new User("Alex"));
+    planner.addUser(new User("Rhea"));
+    planner.addUser(new User("Chat"));
+    planner.addEvent("Alex", new Event("Lunch",
+            "Churchill", false,
+            new Date(Day.Tuesday, "1200"),
+            new Date(Day.Tuesday, "1300"),
+            new ArrayList<>(List.of("Alex", "Rhea"))));
+    planner.saveSnapshot("testModify.snapshot");
+
+    try {
+      NUPlanner loaded = NUPlanner.fromSnapshot("testModify.snapshot");
+
+      // Rhea's schedule has not been looked at, but the planner still knows she holds lunch
+      loaded.modifyEvent("Lunch", new Event("Lunch",
+              "Churchill", false,
+              new Date(Day.Thursday, "1200"),
+              new Date(Day.Thursday, "1300"),
+              new ArrayList<>(List.of("Alex", "Chat"))));
+
+      Assert.assertEquals(Day.Thursday,
+              loaded.getUser("Alex").getEvent("Lunch").getStartDate().getDay());
+      Assert.assertEquals(0, loaded.getUser("Rhea").getEvents().size());
+      Assert.assertEquals(Day.Thursday,
+              loaded.getUser("Chat").getEvent("Lunch").getStartDate().getDay());
+    } finally {
+      new File("testModify.snapshot").delete();
+    }
+  }
+
+  @Test
+  public void testSaveAllOnlyWritesChangedUsers() throws Exception {
+    NUPlanner planner = new NUPlanner(false);
+    planner.addUser(new User("SaveAllA"));
+    planner.addUser(new User("SaveAllB"));
+    Event meeting = new Event("Standup", "Churchill Hall", false,
+            new Date(Day.Monday, "0900"),
+            new Date(Day.Monday, "0930"),
+            new ArrayList<>(List.of("SaveAllA")));
+    planner.addEvent("SaveAllA", meeting);
+
+    File fileA = new File("SaveAllA.xml");
+    File fileB = new File("SaveAllB.xml");
+
+    try {
+      // only the user whose schedule changed is written
+      Assert.assertTrue(planner.saveAll().isEmpty());
+      Assert.assertTrue(fileA.exists());
+      Assert.assertFalse(fileB.exists());
+
+      // nothing has changed since, so nothing is written
+      Assert.assertTrue(fileA.delete());
+      Assert.assertTrue(planner.saveAll().isEmpty());
+      Assert.assertFalse(fileA.exists());
+
+      // saving a single user always brings back a missing file
+      planner.saveUserToXML("SaveAllA");
+      Assert.assertTrue(fileA.exists());
+
+      // a change that comes out the same leaves the file alone
+      Assert.assertTrue(fileA.setLastModified(0));
+      planner.removeEvent("SaveAllA", "Standup");
+      planner.addEvent("SaveAllA", meeting);
+      Assert.assertTrue(planner.saveAll().isEmpty());
+      Assert.assertEquals(0, fileA.lastModified());
+
+      planner.removeEvent("SaveAllA", "Standup");
+      Assert.assertTrue(planner.saveAll().isEmpty());
+      Assert.assertNotEquals(0, fileA.lastModified());
+      Assert.assertFalse(new String(Files.readAllBytes(fileA.toPath())).contains("Standup"));
+    } finally {
+      fileA.delete();
+      fileB.delete();
+    }
+  }
+
+  @Test
+  public void testSaveUserToXMLThatFailsIsSavedAgainLater() throws Exception {
+    NUPlanner planner = new NUPlanner(false);
+    planner.addUser(new User("SaveFails"));
+    planner.addEvent("SaveFails", new Event("Standup", "Churchill Hall", false,
+            new Date(Day.Monday, "0900"),
+            new Date(Day.Monday, "0930"),
+            new ArrayList<>(List.of("SaveFails"))));
+
+    // a directory that is not empty cannot be replaced by the file
+    File file = new File("SaveFails.xml");
+    File blocker = new File(file, "blocker");
+    Assert.assertTrue(file.mkdir());
+    Assert.assertTrue(blocker.createNewFile());
+
+    try {
+      Assert.assertThrows(RuntimeException.class, () -> planner.saveUserToXML("SaveFails"));
+      Assert.assertEquals(List.of("SaveFails"), List.copyOf(planner.saveAll().keySet()));
+
+      // the change was not lost, so it is written as soon as it can be
+      Assert.assertTrue(blocker.delete());
+      Assert.assertTrue(file.delete());
+      Assert.assertTrue(planner.saveAll().isEmpty());
+      Assert.assertTrue(new String(Files.readAllBytes(file.toPath())).contains("Standup"));
+    } finally {
+      blocker.delete();
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testLazyLoadingReadsEventsOnFirstUse() {
+    User before = new User("LazyUser");
+    before.addEvent(new Event("Breakfast", "Stetson East", false,
+            new Date(Day.Monday, "0800"),
+            new Date(Day.Monday, "0900"),
+            new ArrayList<>(List.of("LazyUser"))));
+    FileHelper.writeToFile(before, "LazyUser.xml");
+
+    try {
+      NUPlanner planner = new NUPlanner(false);
+      planner.setLazyLoading(true);
+      planner.uploadXMLFile("LazyUser.xml");
+
+      // the user is registered all the same, so they cannot be uploaded a second time
+      Assert.assertThrows(IllegalStateException.class, () ->
+              planner.uploadXMLFile("LazyUser.xml"));
+
+      // the events are read from the file as it is when the schedule is first used
+      User after = new User("LazyUser");
+      after.addEvent(new Event("Lunch", "Stetson West", false,
+              new Date(Day.Monday, "1200"),
+              new Date(Day.Monday, "1300"),
+              new ArrayList<>(List.of("LazyUser"))));
+      FileHelper.writeToFile(after, "LazyUser.xml");
+
+      List<Event> events = planner.getUser("LazyUser").getEvents();
+      Assert.assertEquals(1, events.size());
+      Assert.assertEquals("Lunch", events.get(0).getName());
+
+      // and never again after that
+      Assert.assertTrue(new File("LazyUser.xml").delete());
+      Assert.assertEquals(1, planner.getUser("LazyUser").getEvents().size());
+    } finally {
+      new File("LazyUser.xml").delete();
+    }
+  }
+
+  @Test
+  public void testLazyLoadingOnlyReadsTheUserId() throws IOException {
+    String noInvitees = "<?xml version=\"1.0\"?>\n"
+            + "<schedule id=\"LazyUser\">\n"
+            + "    <event>\n"
+            + "        <name>Breakfast</name>\n"
+            + "        <time>\n"
+            + "            <start-day>Monday</start-day>\n"
+            + "            <start>0800</start>\n"
+            + "            <end-day>Monday</end-day>\n"
+            + "            <end>0900</end>\n"
+            + "        </time>\n"
+            + "        <location>\n"
+            + "            <online>false</online>\n"
+            + "            <place>Stetson East</place>\n"
+            + "        </location>\n"
+            + "        <users>\n"
+            + "        </users>\n"
+            + "    </event>\n"
+            + "</schedule>\n";
+    String noEvents = "<?xml version=\"1.0\"?>\n<schedule id=\"LazyUser\">\n</schedule>\n";
+
+    NUPlanner journaled = new NUPlanner(false);
+    journaled.saveSnapshot("testLazyUser.snapshot");
+    journaled.openJournal("testLazyUser.journal");
+    journaled.setLazyLoading(true);
+
+    try {
+      // the events are not read, so the files are only found to be invalid later on
+      for (String contents : List.of(noInvitees, noEvents)) {
+        Files.write(Paths.get("LazyUser.xml"), contents.getBytes(StandardCharsets.UTF_8));
+        NUPlanner planner = new NUPlanner(false);
+        planner.setLazyLoading(true);
+        planner.uploadXMLFile("LazyUser.xml");
+        Assert.assertEquals("LazyUser", planner.getUsers().get(0).getUserId());
+      }
+
+      // unless the journal has to record them, in which case they are turned down right away
+      Files.write(Paths.get("LazyUser.xml"), noInvitees.getBytes(StandardCharsets.UTF_8));
+      Assert.assertThrows(IllegalStateException.class, () ->
+              journaled.uploadXMLFile("LazyUser.xml"));
+      Files.write(Paths.get("LazyUser.xml"), noEvents.getBytes(StandardCharsets.UTF_8));
+      Assert.assertThrows(IllegalStateException.class, () ->
+              journaled.uploadXMLFile("LazyUser.xml"));
+      Assert.assertTrue(journaled.getUsers().isEmpty());
+    } finally {
+      new File("LazyUser.xml").delete();
+      new File("testLazyUser.snapshot").delete();
+      new File("testLazyUser.journal").delete();
+    }
+  }
+
+  @Test
+  public void testLazyLoadingOnlyAffectsTheUserWhoseFileBroke() {
+    Event breakfast = new Event("Breakfast", "Stetson East", false,
+            new Date(Day.Monday, "0800"),
+            new Date(Day.Monday, "0900"),
+            new ArrayList<>(List.of("Friend", "LazyUser")));
+    User lazy = new User("LazyUser");
+    lazy.addEvent(breakfast);
+    FileHelper.writeToFile(lazy, "LazyUser.xml");
+
+    try {
+      NUPlanner planner = new NUPlanner(false);
+      planner.setLazyLoading(true);
+      planner.uploadXMLFile("LazyUser.xml");
+      User friend = new User("Friend");
+      friend.addEvent(breakfast);
+      planner.addUser(friend);
+
+      // the file is gone by the time anyone needs the schedule
+      Assert.assertTrue(new File("LazyUser.xml").delete());
+
+      // removing the event goes through the user who can no longer be loaded
+      planner.removeEvent("Friend", "Breakfast");
+      Assert.assertNull(planner.getUser("Friend").getEvent("Breakfast"));
+
+      // who is left with an empty schedule, without trying the file again
+      Assert.assertTrue(planner.getUser("LazyUser").getEvents().isEmpty());
+      FileHelper.writeToFile(lazy, "LazyUser.xml");
+      Assert.assertTrue(planner.getUser("LazyUser").getEvents().isEmpty());
+    } finally {
+      new File("LazyUser.xml").delete();
+    }
+  }
+
+  @Test
+  public void testLazyUserWhoseFileBrokeIsNeverSaved() throws IOException {
+    User lazy = new User("LazyUser");
+    lazy.addEvent(new Event("Breakfast", "Stetson East", false,
+            new Date(Day.Monday, "0800"),
+            new Date(Day.Monday, "0900"),
+            new ArrayList<>(List.of("LazyUser"))));
+    FileHelper.writeToFile(lazy, "LazyUser.xml");
+    String corrupted = "<?xml version=\"1.0\"?>\n<schedule id=\"LazyUser\">\n<event>";
+
+    try {
+      NUPlanner planner = new NUPlanner(false);
+      planner.setLazyLoading(true);
+      planner.uploadXMLFile("LazyUser.xml");
+
+      // the file is corrupted after the upload, so the schedule comes out empty
+      Files.write(Paths.get("LazyUser.xml"), corrupted.getBytes(StandardCharsets.UTF_8));
+      planner.addEvent("LazyUser", new Event("Lunch", "Stetson West", false,
+              new Date(Day.Monday, "1200"),
+              new Date(Day.Monday, "1300"),
+              new ArrayList<>(List.of("LazyUser"))));
+      Assert.assertEquals(1, planner.getUser("LazyUser").getEvents().size());
+
+      // and is never saved over the file, which is left for someone to fix
+      Assert.assertTrue(planner.saveAll().isEmpty());
+      Assert.assertThrows(IllegalStateException.class, () ->
+              planner.saveUserToXML("LazyUser"));
+      planner.saveSnapshot("testLazyUser.snapshot");
+      Assert.assertTrue(NUPlanner.fromSnapshot("testLazyUser.snapshot").getUsers().isEmpty());
+      Assert.assertEquals(corrupted, Files.readString(Paths.get("LazyUser.xml")));
+    } finally {
+      new File("LazyUser.xml").delete();
+      new File("testLazyUser.snapshot").delete();
+    }
+  }
+
+  @Test
+  public void testReloadXMLFileAppliesOnlyTheDifference() {
+    Event breakfast = new Event("Breakfast", "Stetson East", false,
+            new Date(Day.Monday, "0800"),
+            new Date(Day.Monday, "0900"),
+            new ArrayList<>(List.of("ReloadUser", "Friend")));
+    Event lunch = new Event("Lunch", "Stetson West", false,
+            new Date(Day.Monday, "1200"),
+            new Date(Day.Monday, "1300"),
+            new ArrayList<>(List.of("ReloadUser")));
+    User exported = new User("ReloadUser");
+    exported.addEvent(breakfast);
+    exported.addEvent(lunch);
+    FileHelper.writeToFile(exported, "ReloadUser.xml");
+
+    try {
+      NUPlanner planner = new NUPlanner(false);
+      User friend = new User("Friend");
+      friend.addEvent(breakfast);
+      planner.addUser(friend);
+      // a user who does not exist yet is simply uploaded
+      Assert.assertTrue(planner.reloadXMLFile("ReloadUser.xml"));
+      Event keptBreakfast = planner.getUser("ReloadUser").getEvent("Breakfast");
+      Assert.assertFalse(planner.reloadXMLFile("ReloadUser.xml"));
+
+      // lunch moves and dinner is new, while breakfast stays exactly as it was
+      exported.removeEvent("Lunch");
+      exported.addEvent(new Event("Lunch", "Stetson West", false,
+              new Date(Day.Monday, "1300"),
+              new Date(Day.Monday, "1400"),
+              new ArrayList<>(List.of("ReloadUser"))));
+      exported.addEvent(new Event("Dinner", "International Village", false,
+              new Date(Day.Monday, "1800"),
+              new Date(Day.Monday, "1900"),
+              new ArrayList<>(List.of("ReloadUser"))));
+      FileHelper.writeToFile(exported, "ReloadUser.xml");
+
+      Assert.assertTrue(planner.reloadXMLFile("ReloadUser.xml"));
+      User reloaded = planner.getUser("ReloadUser");
+      Assert.assertEquals(3, reloaded.getEvents().size());
+      Assert.assertSame(keptBreakfast, reloaded.getEvent("Breakfast"));
+      Assert.assertEquals("1300", reloaded.getEvent("Lunch").getStartDate().getTime());
+      Assert.assertNotNull(reloaded.getEvent("Dinner"));
+
+      // the file only speaks for its own user
+      exported.removeEvent("Breakfast");
+      FileHelper.writeToFile(exported, "ReloadUser.xml");
+      Assert.assertTrue(planner.reloadXMLFile("ReloadUser.xml"));
+      Assert.assertNull(planner.getUser("ReloadUser").getEvent("Breakfast"));
+      Assert.assertNotNull(planner.getUser("Friend").getEvent("Breakfast"));
+    } finally {
+      new File("ReloadUser.xml").delete();
+    }
+  }
+
+  @Test
+  public void testJournalReplaysChangesOnTopOfSnapshot() throws Exception {
+    NUPlanner planner = new NUPlanner(false);
+    planner.addUser(new User("Alex"));
+    planner.addUser(new User("Bob"));
+    planner.saveSnapshot("testJournal.snapshot");
+    planner.openJournal("testJournal.journal");
+
+    try {
+      planner.addEvent("Alex", new Event("Lecture", "Churchill", false,
+              new Date(Day.Tuesday, "0950"),
+              new Date(Day.Tuesday, "1130"),
+              new ArrayList<>(List.of("Alex", "Bob"))));
+      planner.addEvent("Bob", new Event("Gym", "Marino", false,
+              new Date(Day.Monday, "0700"),
+              new Date(Day.Monday, "0800"),
+              new ArrayList<>(List.of("Bob"))));
+      planner.modifyEvent("Lecture", new Event("Lab", "Churchill", false,
+              new Date(Day.Wednesday, "1000"),
+              new Date(Day.Wednesday, "1200"),
+              new ArrayList<>(List.of("Alex", "Bob"))));
+      planner.removeEvent("Bob", "Gym");
+      planner.uploadXMLFile("bobby.xml");
+
+      // a record that was cut off part way through being written is ignored
+      Files.write(Paths.get("testJournal.journal"), new byte[] {0, 0, 0, 9, 1, 2},
+              StandardOpenOption.APPEND);
+
+      NUPlanner reloaded = NUPlanner.fromSnapshot("testJournal.snapshot");
+      reloaded.openJournal("testJournal.journal");
+
+      Assert.assertEquals(3, reloaded.getUsers().size());
+      for (String userId : List.of("Alex", "Bob", "bobby")) {
+        Assert.assertEquals(planner.displayUserSchedule(userId),
+                reloaded.displayUserSchedule(userId));
+      }
+
+      // saving a new snapshot empties the journal, and nothing gets replayed twice
+      reloaded.saveSnapshot("testJournal.snapshot");
+      NUPlanner restarted = NUPlanner.fromSnapshot("testJournal.snapshot");
+      restarted.openJournal("testJournal.journal");
+      Assert.assertEquals(planner.displayUserSchedule("Alex"),
+              restarted.displayUserSchedule("Alex"));
+      Assert.assertEquals(1, restarted.getUser("Bob").getEvents().size());
+    } finally {
+      new File("testJournal.snapshot").delete();
+      new File("testJournal.journal").delete();
+    }
+  }
+
+  @Test
+  public void testJournalRecordsWhatFilesHeldWhenTheyWereRead() {
+    User exported = new User("JournalFile");
+    exported.addEvent(new Event("Breakfast", "Stetson East", false,
+            new Date(Day.Monday, "0800"),
+            new Date(Day.Monday, "0900"),
+            new ArrayList<>(List.of("JournalFile"))));
+    FileHelper.writeToFile(exported, "JournalFile.xml");
+
+    NUPlanner planner = new NUPlanner(false);
+    planner.saveSnapshot("testJournalFile.snapshot");
+    planner.openJournal("testJournalFile.journal");
+
+    try {
+      planner.setLazyLoading(true);
+      planner.uploadXMLFile("JournalFile.xml");
+
+      exported.addEvent(new Event("Lunch", "Stetson West", false,
+              new Date(Day.Monday, "1200"),
+              new Date(Day.Monday, "1300"),
+              new ArrayList<>(List.of("JournalFile"))));
+      FileHelper.writeToFile(exported, "JournalFile.xml");
+      // the schedule was not built yet, so it is built from the new file and nothing changes
+      Assert.assertFalse(planner.reloadXMLFile("JournalFile.xml"));
+      String expected = planner.displayUserSchedule("JournalFile");
+
+      // the file is gone by the time the journal is replayed, and that does not matter
+      Assert.assertTrue(new File("JournalFile.xml").delete());
+      NUPlanner reloaded = NUPlanner.fromSnapshot("testJournalFile.snapshot");
+      reloaded.openJournal("testJournalFile.journal");
+
+      Assert.assertEquals(expected, reloaded.displayUserSchedule("JournalFile"));
+      Assert.assertEquals(2, reloaded.getUser("JournalFile").getEvents().size());
+    } finally {
+      new File("JournalFile.xml").delete();
+      new File("testJournalFile.snapshot").delete();
+      new File("testJournalFile.journal").delete();
+    }
+  }
+
+  @Test
+  public void testJournalSkipsRecordsThatCannotBeReplayed() {
+    NUPlanner planner = new NUPlanner(false);
+    planner.addUser(new User("Alex"));
+    planner.saveSnapshot("testBadJournal.snapshot");
+    Event gym = new Event("Gym", "Marino", false,
+            new Date(Day.Monday, "0700"),
+            new Date(Day.Monday, "0800"),
+            new ArrayList<>(List.of("Alex")));
+    Event lunch = new Event("Lunch", "Stetson West", false,
+            new Date(Day.Monday, "1200"),
+            new Date(Day.Monday, "1300"),
+            new ArrayList<>(List.of("Alex")));
+
+    try {
+      // Nobody does not exist, so the first record cannot be replayed
+      try (MutationJournal journal = MutationJournal.open("testBadJournal.journal",
+              Snapshot.readId("testBadJournal.snapshot"), planner)) {
+        journal.eventRemoved("Nobody", "Gym");
+        journal.eventAdded("Alex", gym);
+        journal.awaitDurable();
+      }
+
+      // the bad record is skipped, and the one after it is still replayed
+      NUPlanner reloaded = NUPlanner.fromSnapshot("testBadJournal.snapshot");
+      reloaded.openJournal("testBadJournal.journal");
+      Assert.assertNotNull(reloaded.getUser("Alex").getEvent("Gym"));
+
+      // new changes go after the records already there, and replay as usual
+      reloaded.addEvent("Alex", lunch);
+      NUPlanner restarted = NUPlanner.fromSnapshot("testBadJournal.snapshot");
+      restarted.openJournal("testBadJournal.journal");
+      Assert.assertEquals(2, restarted.getUser("Alex").getEvents().size());
+    } finally {
+      new File("testBadJournal.snapshot").delete();
+      new File("testBadJournal.journal").delete();
+    }
+  }
+
   @Test
   public void testUploadXMLFileFailsWithNoInvitees() {
     NUPlanner planner = new NUPlanner(false);
@@ -724,6 +1257,112 @@ public class NUPlannerTests {
     Assert.assertEquals(0, kaia.getEvents().size());
   }
 
+  @Test
+  public void testModifyEventOnlyChangesAffectedSchedules() {
+    Event event1 = new Event("Event 1",
+            "Churchill", false,
+            new Date(Day.Tuesday, "0700"),
+            new Date(Day.Tuesday, "0800"),
+            new ArrayList<>(List.of("Alex", "Bob")));
+
+    User alex = new User("Alex");
+    User bob = new User("Bob");
+    User carl = new User("Carl");
+    NUPlanner planner = new NUPlanner(false);
+    planner.addUser(alex);
+    planner.addUser(bob);
+    planner.addUser(carl);
+    planner.addEvent("Alex", event1);
+
+    // Bob is no longer invited and Carl was never invited to either version of the event
+    planner.modifyEvent("Event 1", new Event("Event 2",
+            "Churchill", false,
+            new Date(Day.Tuesday, "1000"),
+            new Date(Day.Tuesday, "1200"),
+            new ArrayList<>(List.of("Alex"))));
+
+    Assert.assertEquals("Event 2", alex.getEvents().get(0).getName());
+    Assert.assertEquals(0, bob.getEvents().size());
+    Assert.assertEquals(0, carl.getEvents().size());
+
+    // the event can be modified again under its new name
+    planner.modifyEvent("Event 2", new Event("Event 3",
+            "Churchill", false,
+            new Date(Day.Tuesday, "1300"),
+            new Date(Day.Tuesday, "1400"),
+            new ArrayList<>(List.of("Alex", "Carl"))));
+
+    Assert.assertEquals(1, alex.getEvents().size());
+    Assert.assertEquals("Event 3", carl.getEvents().get(0).getName());
+    Assert.assertEquals(0, bob.getEvents().size());
+  }
+
+  @Test
+  public void testModifyEventLeavesOtherEventsWithTheSameNameAlone() {
+    User alex = new User("Alex");
+    User bob = new User("Bob");
+    User carl = new User("Carl");
+    NUPlanner planner = new NUPlanner(false);
+    planner.addUser(alex);
+    planner.addUser(bob);
+    planner.addUser(carl);
+
+    // Alex invites Bob to lunch, while Carl has a lunch of his own
+    planner.addEvent("Alex", new Event("Lunch",
+            "Churchill", false,
+            new Date(Day.Tuesday, "1200"),
+            new Date(Day.Tuesday, "1300"),
+            new ArrayList<>(List.of("Alex", "Bob"))));
+    planner.addEvent("Carl", new Event("Lunch",
+            "Marino", false,
+            new Date(Day.Wednesday, "1200"),
+            new Date(Day.Wednesday, "1300"),
+            new ArrayList<>(List.of("Carl"))));
+
+    planner.modifyEvent("Lunch", new Event("Lunch",
+            "Churchill", false,
+            new Date(Day.Thursday, "1200"),
+            new Date(Day.Thursday, "1300"),
+            new ArrayList<>(List.of("Alex", "Bob"))));
+
+    Assert.assertEquals(Day.Thursday, alex.getEvent("Lunch").getStartDate().getDay());
+    Assert.assertEquals(Day.Thursday, bob.getEvent("Lunch").getStartDate().getDay());
+    Assert.assertEquals("Marino", carl.getEvent("Lunch").getLocation());
+    Assert.assertEquals(Day.Wednesday, carl.getEvent("Lunch").getStartDate().getDay());
+
+    // removing Alex's lunch does not remove Carl's either
+    planner.removeEvent("Alex", "Lunch");
+    Assert.assertNull(alex.getEvent("Lunch"));
+    Assert.assertNull(bob.getEvent("Lunch"));
+    Assert.assertEquals("Marino", carl.getEvent("Lunch").getLocation());
+  }
+
+  @Test
+  public void testRemoveEventLeavesAnInviteesOwnEventAlone() {
+    User alex = new User("Alex");
+    User bob = new User("Bob");
+    NUPlanner planner = new NUPlanner(false);
+    planner.addUser(alex);
+    planner.addUser(bob);
+
+    // Bob already has a "Meeting" of his own, so he cannot receive Alex's
+    planner.addEvent("Bob", new Event("Meeting",
+            "Marino", false,
+            new Date(Day.Monday, "0900"),
+            new Date(Day.Monday, "1000"),
+            new ArrayList<>(List.of("Bob"))));
+    planner.addEvent("Alex", new Event("Meeting",
+            "Churchill", false,
+            new Date(Day.Friday, "0900"),
+            new Date(Day.Friday, "1000"),
+            new ArrayList<>(List.of("Alex", "Bob"))));
+
+    planner.removeEvent("Alex", "Meeting");
+
+    Assert.assertEquals(0, alex.getEvents().size());
+    Assert.assertEquals("Marino", bob.getEvent("Meeting").getLocation());
+  }
+
   @Test
   public void testModifyEventFailsWhenHostNotInSystem() {
     Event event1 = new Event("Event 1",
@@ -0,0 +1,137 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import javax.swing.SwingUtilities;
+
+import controller.ScheduleDirectoryWatcher;
+import helpers.FileHelper;
+import model.Date;
+import model.Day;
+import model.Event;
+import model.NUPlanner;
+import model.NUPlannerModel;
+import model.User;
+
+/**
+ * Tests methods in ScheduleDirectoryWatcher class. The watcher reads files on its own thread
+ * and changes the model on the GUI's thread, so these tests look at the model from the GUI's
+ * thread as well.
+ */
+public class ScheduleDirectoryWatcherTests {
+
+  /**
+   * Waits a few seconds at most for the given condition to hold on the GUI's thread.
+   * @return whether the condition held in time
+   */
+  private static boolean eventually(BooleanSupplier condition) throws Exception {
+    boolean[] held = new boolean[1];
+
+    for (int attempt = 0; attempt < 100; attempt++) {
+      SwingUtilities.invokeAndWait(() -> held[0] = condition.getAsBoolean());
+
+      if (held[0]) {
+        return true;
+      }
+
+      Thread.sleep(50);
+    }
+
+    return false;
+  }
+
+  @Test
+  public void testWatcherFailsWithInvalidConstructorParams() {
+    NUPlannerModel model = new NUPlanner(false);
+    FakeView fakeView = new FakeView(new StringBuilder());
+
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new ScheduleDirectoryWatcher(null, fakeView, "."));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new ScheduleDirectoryWatcher(model, null, "."));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new ScheduleDirectoryWatcher(model, fakeView, "bobby.xml"));
+  }
+
+  @Test
+  public void testWatcherReloadsChangedFiles() throws Exception {
+    NUPlannerModel model = new NUPlanner(false);
+    StringBuilder stringBuilder = new StringBuilder();
+    FakeView fakeView = new FakeView(stringBuilder);
+    File directory = Files.createTempDirectory("schedules").toFile();
+    File file = new File(directory, "WatchedUser.xml");
+
+    User exported = new User("WatchedUser");
+    exported.addEvent(new Event("Breakfast", "Stetson East", false,
+            new Date(Day.Monday, "0800"),
+            new Date(Day.Monday, "0900"),
+            new ArrayList<>(List.of("WatchedUser"))));
+
+    try (ScheduleDirectoryWatcher watcher = new ScheduleDirectoryWatcher(model, fakeView,
+            directory.getPath())) {
+      watcher.start();
+      FileHelper.writeToFile(exported, file.getPath());
+
+      Assert.assertTrue(eventually(() -> !model.getUsers().isEmpty()));
+      Assert.assertEquals(1, model.getUser("WatchedUser").getEvents().size());
+
+      // only the difference is applied, and the view is refreshed once it has been
+      exported.removeEvent("Breakfast");
+      exported.addEvent(new Event("Lunch", "Stetson West", false,
+              new Date(Day.Monday, "1200"),
+              new Date(Day.Monday, "1300"),
+              new ArrayList<>(List.of("WatchedUser"))));
+      FileHelper.writeToFile(exported, file.getPath());
+
+      Assert.assertTrue(eventually(() ->
+              model.getUser("WatchedUser").getEvent("Lunch") != null));
+      Assert.assertNull(model.getUser("WatchedUser").getEvent("Breakfast"));
+      Assert.assertTrue(eventually(() -> stringBuilder.toString().endsWith("refreshed")));
+    } finally {
+      file.delete();
+      directory.delete();
+    }
+  }
+
+  @Test
+  public void testWatcherLeavesUserAloneWhenFileIsInvalid() throws Exception {
+    NUPlannerModel model = new NUPlanner(false);
+    User user = new User("WatchedUser");
+    user.addEvent(new Event("Breakfast", "Stetson East", false,
+            new Date(Day.Monday, "0800"),
+            new Date(Day.Monday, "0900"),
+            new ArrayList<>(List.of("WatchedUser"))));
+    model.addUser(user);
+    FakeView fakeView = new FakeView(new StringBuilder());
+    File directory = Files.createTempDirectory("schedules").toFile();
+    File broken = new File(directory, "WatchedUser.xml");
+    File other = new File(directory, "OtherUser.xml");
+
+    User exported = new User("OtherUser");
+    exported.addEvent(new Event("Lunch", "Stetson West", false,
+            new Date(Day.Monday, "1200"),
+            new Date(Day.Monday, "1300"),
+            new ArrayList<>(List.of("OtherUser"))));
+
+    try (ScheduleDirectoryWatcher watcher = new ScheduleDirectoryWatcher(model, fakeView,
+            directory.getPath())) {
+      watcher.start();
+      // a schedule without any events is not valid
+      Files.writeString(broken.toPath(),
+              "<?xml version=\"1.0\"?>\n<schedule id=\"WatchedUser\">\n</schedule>\n");
+      FileHelper.writeToFile(exported, other.getPath());
+
+      Assert.assertTrue(eventually(() -> model.getUsers().size() == 2));
+      Assert.assertEquals(1, model.getUser("WatchedUser").getEvents().size());
+    } finally {
+      broken.delete();
+      other.delete();
+      directory.delete();
+    }
+  }
+}
@@ -120,4 +120,108 @@ public class ScheduleTests {
 
     Assert.assertEquals(this.textViewUser1, schedule.toString());
   }
+
+  @Test
+  public void testIsBusyAt() {
+    Event event1 = new Event("Work",
+            "Office",
+            false,
+            new Date(Day.Tuesday, "0900"),
+            new Date(Day.Tuesday, "1700"),
+            new ArrayList<>(List.of("Alex")));
+
+    // continues into Sunday morning of the following week
+    Event event2 = new Event("Sleep",
+            "Home",
+            true,
+            new Date(Day.Saturday, "2200"),
+            new Date(Day.Sunday, "0800"),
+            new ArrayList<>(List.of("Alex")));
+
+    Schedule schedule = new Schedule("Alex");
+    schedule.addEvent(event1);
+    schedule.addEvent(event2);
+
+    Assert.assertTrue(schedule.isBusyAt(new Date(Day.Tuesday, "0900")));
+    Assert.assertTrue(schedule.isBusyAt(new Date(Day.Tuesday, "1659")));
+    Assert.assertFalse(schedule.isBusyAt(new Date(Day.Tuesday, "1700")));
+    Assert.assertTrue(schedule.isBusyAt(new Date(Day.Sunday, "0500")));
+    Assert.assertFalse(schedule.isBusyAt(new Date(Day.Sunday, "0800")));
+
+    // the bitmap has been built now, so it must follow removals and additions
+    schedule.removeEvent("Work");
+    Assert.assertFalse(schedule.isBusyAt(new Date(Day.Tuesday, "1000")));
+    Assert.assertFalse(schedule.hasTimeConflict(event1));
+    schedule.addEvent(event1);
+    Assert.assertTrue(schedule.isBusyAt(new Date(Day.Tuesday, "1000")));
+    Assert.assertTrue(schedule.hasTimeConflict(event1));
+  }
+
+  @Test
+  public void testGetEventsOccurringAt() {
+    Event event1 = new Event("Work",
+            "Office",
+            false,
+            new Date(Day.Tuesday, "0900"),
+            new Date(Day.Tuesday, "1700"),
+            new ArrayList<>(List.of("Alex")));
+
+    Event event2 = new Event("Gym",
+            "Marino",
+            false,
+            new Date(Day.Tuesday, "1700"),
+            new Date(Day.Tuesday, "1800"),
+            new ArrayList<>(List.of("Alex")));
+
+    Event event3 = new Event("Sleep",
+            "Home",
+            true,
+            new Date(Day.Saturday, "2200"),
+            new Date(Day.Sunday, "0800"),
+            new ArrayList<>(List.of("Alex")));
+
+    Schedule schedule = new Schedule("Alex");
+    schedule.addEvent(event1);
+    schedule.addEvent(event2);
+    schedule.addEvent(event3);
+
+    Assert.assertEquals(List.of(event1, event2),
+            schedule.getEventsOccurringAt(new Date(Day.Tuesday, "1700")));
+    Assert.assertEquals(List.of(event1),
+            schedule.getEventsOccurringAt(new Date(Day.Tuesday, "0900")));
+    Assert.assertEquals(List.of(event3),
+            schedule.getEventsOccurringAt(new Date(Day.Sunday, "0800")));
+    Assert.assertEquals(List.of(),
+            schedule.getEventsOccurringAt(new Date(Day.Wednesday, "1200")));
+  }
+
+  @Test
+  public void testGetEvent() {
+    Event event1 = new Event("Work",
+            "Office",
+            false,
+            new Date(Day.Tuesday, "0900"),
+            new Date(Day.Tuesday, "1700"),
+            new ArrayList<>(List.of("Alex")));
+
+    Event event2 = new Event("Gym",
+            "Marino",
+            false,
+            new Date(Day.Tuesday, "1700"),
+            new Date(Day.Tuesday, "1800"),
+            new ArrayList<>(List.of("Alex")));
+
+    Schedule schedule = new Schedule("Alex");
+    schedule.addEvent(event1);
+    schedule.addEvent(event2);
+
+    Assert.assertSame(event1, schedule.getEvent("Work"));
+    Assert.assertSame(event2, schedule.getEvent("Gym"));
+    Assert.assertNull(schedule.getEvent("Sleep"));
+
+    schedule.removeEvent("Work");
+    Assert.assertNull(schedule.getEvent("Work"));
+    Assert.assertFalse(schedule.hasEventNameConflict("Work"));
+    Assert.assertTrue(schedule.hasEventNameConflict("Gym"));
+  }
 }
@@ -11,6 +11,7 @@ import model.Date;
 import model.Day;
 import model.Event;
 import model.NUPlanner;
+import model.User;
 
 /**
  * Tests the workhours and anytime strategy implementations.
@@ -50,7 +51,7 @@ public class StrategyTests {
             "nowhere", false, new ArrayList<String>(List.of("jimmy", "bobby")));
 
     Event expectedEvent = new Event("reading", "nowhere", false,
-            new Date(Day.Sunday, "0900"), new Date(Day.Sunday, "0930"),
+            new Date(Day.Monday, "0900"), new Date(Day.Monday, "0930"),
             new ArrayList<String>(List.of("jimmy", "bobby")));
 
     Assert.assertTrue(event.getLocation().equals(expectedEvent.getLocation()));
@@ -67,4 +68,169 @@ public class StrategyTests {
       Assert.assertTrue(!model.doesEventConflictExist(user, event));
     });
   }
+
+  @Test
+  public void testAnytimeStrategyFindsFirstGapForEveryone() {
+    NUPlanner model = new NUPlanner(false);
+    model.addUser(new User("Alex"));
+    model.addUser(new User("Bob"));
+    model.addEvent("Alex", new Event("Sleep", "Home", false,
+            new Date(Day.Sunday, "0000"), new Date(Day.Sunday, "0800"),
+            new ArrayList<>(List.of("Alex"))));
+    model.addEvent("Bob", new Event("Breakfast", "Home", false,
+            new Date(Day.Sunday, "0830"), new Date(Day.Sunday, "0900"),
+            new ArrayList<>(List.of("Bob"))));
+
+    SchedulingStrategy anytimeStrategy = new AnytimeStrategy(model);
+
+    // 0800 -> 0830 is too short, so the first block that works for both is after breakfast
+    Event event = anytimeStrategy.findEvent("Meeting", "45", "Office", false,
+            new ArrayList<>(List.of("Alex", "Bob")));
+    Assert.assertEquals(Day.Sunday, event.getStartDate().getDay());
+    Assert.assertEquals("0900", event.getStartDate().getTime());
+    Assert.assertEquals("0945", event.getEndDate().getTime());
+
+    Event shortEvent = anytimeStrategy.findEvent("Coffee", "30", "Office", false,
+            new ArrayList<>(List.of("Alex", "Bob")));
+    Assert.assertEquals("0800", shortEvent.getStartDate().getTime());
+  }
+
+  @Test
+  public void testAnytimeStrategyReturnsNullWhenNoTimeWorks() {
+    NUPlanner model = new NUPlanner(false);
+    model.addUser(new User("Alex"));
+    model.addEvent("Alex", new Event("Vacation", "Beach", false,
+            new Date(Day.Sunday, "0100"), new Date(Day.Sunday, "0000"),
+            new ArrayList<>(List.of("Alex"))));
+
+    SchedulingStrategy anytimeStrategy = new AnytimeStrategy(model);
+
+    Assert.assertNull(anytimeStrategy.findEvent("Meeting", "90", "Office", false,
+            new ArrayList<>(List.of("Alex"))));
+    // an event name conflict can never be avoided by picking a different time
+    Assert.assertNull(anytimeStrategy.findEvent("Vacation", "30", "Office", false,
+            new ArrayList<>(List.of("Alex"))));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            anytimeStrategy.findEvent("Meeting", "30", "Office", false,
+                    new ArrayList<>(List.of("Alex", "Nobody"))));
+  }
+
+  @Test
+  public void testAnytimeStrategySkipsEventsRunningIntoTheNextWeek() {
+    NUPlanner model = new NUPlanner(false);
+    model.addUser(new User("Alex"));
+    // runs from Saturday night into Sunday morning, so it takes up the start of every week
+    model.addEvent("Alex", new Event("Party", "Home", false,
+            new Date(Day.Saturday, "2200"), new Date(Day.Sunday, "0100"),
+            new ArrayList<>(List.of("Alex"))));
+
+    SchedulingStrategy anytimeStrategy = new AnytimeStrategy(model);
+    Event event = anytimeStrategy.findEvent("Meeting", "30", "Office", false,
+            new ArrayList<>(List.of("Alex")));
+
+    Assert.assertEquals(Day.Sunday, event.getStartDate().getDay());
+    Assert.assertEquals("0100", event.getStartDate().getTime());
+    Assert.assertFalse(model.doesEventConflictExist("Alex", event));
+    model.addEvent("Alex", event);
+  }
+
+  @Test
+  public void testAnytimeStrategyChecksEventsRunningIntoTheNextWeek() {
+    NUPlanner model = new NUPlanner(false);
+    model.addUser(new User("Alex"));
+    // only Saturday from 2330 and Sunday from 0015 to 0030 are free
+    model.addEvent("Alex", new Event("Early", "Home", false,
+            new Date(Day.Sunday, "0000"), new Date(Day.Sunday, "0015"),
+            new ArrayList<>(List.of("Alex"))));
+    model.addEvent("Alex", new Event("Week", "Office", false,
+            new Date(Day.Sunday, "0030"), new Date(Day.Saturday, "2330"),
+            new ArrayList<>(List.of("Alex"))));
+
+    SchedulingStrategy anytimeStrategy = new AnytimeStrategy(model);
+
+    // from Saturday at 2330, 40 minutes would run into next Sunday's early event
+    Assert.assertNull(anytimeStrategy.findEvent("Meeting", "40", "Office", false,
+            new ArrayList<>(List.of("Alex"))));
+
+    // 30 minutes fit right before the end of the week, running into nothing
+    model.removeEvent("Alex", "Early");
+    model.addEvent("Alex", new Event("Early", "Home", false,
+            new Date(Day.Sunday, "0000"), new Date(Day.Sunday, "0030"),
+            new ArrayList<>(List.of("Alex"))));
+    Event event = anytimeStrategy.findEvent("Meeting", "30", "Office", false,
+            new ArrayList<>(List.of("Alex")));
+    Assert.assertEquals(Day.Saturday, event.getStartDate().getDay());
+    Assert.assertEquals("2330", event.getStartDate().getTime());
+    model.addEvent("Alex", event);
+  }
+
+  @Test
+  public void testWorkhoursStrategySkipsEventsRunningIntoTheNextWeek() {
+    NUPlanner model = new NUPlanner(false);
+    model.addUser(new User("Alex"));
+    model.addUser(new User("Bob"));
+    // runs from Friday afternoon until Monday morning, so it takes up the start of every week
+    model.addEvent("Alex", new Event("Trip", "Maine", false,
+            new Date(Day.Friday, "1600"), new Date(Day.Monday, "1000"),
+            new ArrayList<>(List.of("Alex"))));
+
+    SchedulingStrategy workhoursStrategy = new WorkHoursStrategy(model);
+    Event event = workhoursStrategy.findEvent("Review", "60", "Office", false,
+            new ArrayList<>(List.of("Bob", "Alex")));
+
+    Assert.assertEquals(Day.Monday, event.getStartDate().getDay());
+    Assert.assertEquals("1000", event.getStartDate().getTime());
+    Assert.assertFalse(model.doesEventConflictExist("Alex", event));
+    model.addEvent("Bob", event);
+    Assert.assertNotNull(model.getUser("Alex").getEvent("Review"));
+  }
+
+  @Test
+  public void testStrategiesRejectEventsLastingAWholeWeek() {
+    NUPlanner model = new NUPlanner(false);
+    model.addUser(new User("Alex"));
+
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new AnytimeStrategy(model).findEvent("Meeting", "10080", "Office", false,
+                    new ArrayList<>(List.of("Alex"))));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new WorkHoursStrategy(model).findEvent("Meeting", "10080", "Office", false,
+                    new ArrayList<>(List.of("Alex"))));
+  }
+
+  @Test
+  public void testWorkhoursStrategySkipsBusyTimeAndAfterHours() {
+    NUPlanner model = new NUPlanner(false);
+    model.addUser(new User("Alex"));
+    model.addUser(new User("Bob"));
+    // Alex is busy all of Monday's work hours
+    model.addEvent("Alex", new Event("Conference", "Boston", false,
+            new Date(Day.Monday, "0800"), new Date(Day.Monday, "1800"),
+            new ArrayList<>(List.of("Alex"))));
+    // Bob's two overlapping events leave only 30 minutes before 1700 on Tuesday
+    model.addEvent("Bob", new Event("Standup", "Office", false,
+            new Date(Day.Tuesday, "0900"), new Date(Day.Tuesday, "1200"),
+            new ArrayList<>(List.of("Bob"))));
+    model.addEvent("Alex", new Event("Lunch", "Cafe", false,
+            new Date(Day.Tuesday, "1100"), new Date(Day.Tuesday, "1630"),
+            new ArrayList<>(List.of("Alex"))));
+
+    SchedulingStrategy workhoursStrategy = new WorkHoursStrategy(model);
+
+    Event event = workhoursStrategy.findEvent("Review", "60", "Office", false,
+            new ArrayList<>(List.of("Alex", "Bob")));
+    Assert.assertEquals(Day.Wednesday, event.getStartDate().getDay());
+    Assert.assertEquals("0900", event.getStartDate().getTime());
+    Assert.assertEquals("1000", event.getEndDate().getTime());
+
+    Event shortEvent = workhoursStrategy.findEvent("Sync", "30", "Office", false,
+            new ArrayList<>(List.of("Alex", "Bob")));
+    Assert.assertEquals(Day.Tuesday, shortEvent.getStartDate().getDay());
+    Assert.assertEquals("1630", shortEvent.getStartDate().getTime());
+
+    // longer than a work day, so it can never fit
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            workhoursStrategy.findEvent("Retreat", "481", "Office", false,
+                    new ArrayList<>(List.of("Alex", "Bob"))));
+  }
 }
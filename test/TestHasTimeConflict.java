@@ -456,4 +456,147 @@ public class TestHasTimeConflict {
     Assert.assertEquals(event1, rhea.getEvents().get(0));
     Assert.assertEquals(event2, rhea.getEvents().get(1));
   }
+
+  @Test
+  public void testHasTimeConflictAfterRemovingEvent() {
+    User rhea = new User("Rhea");
+
+    Event event1 = new Event("Sleep1",
+            "nowhere",
+            true,
+            new Date(Day.Tuesday, "1000"),
+            new Date(Day.Tuesday, "1200"),
+            new ArrayList<>(List.of("Rhea")));
+
+    Event event2 = new Event("Sleep2",
+            "nowhere",
+            true,
+            new Date(Day.Tuesday, "1100"),
+            new Date(Day.Tuesday, "1300"),
+            new ArrayList<>(List.of("Rhea")));
+
+    rhea.addEvent(event1);
+    Assert.assertTrue(rhea.getSchedule().hasTimeConflict(event2));
+
+    // once the conflicting event is gone, its time block should be free again
+    rhea.removeEvent("Sleep1");
+    Assert.assertFalse(rhea.getSchedule().hasTimeConflict(event2));
+    rhea.addEvent(event2);
+    Assert.assertEquals(event2, rhea.getEvents().get(0));
+  }
+
+  @Test
+  public void testHasTimeConflictWithManyEvents() {
+    User rhea = new User("Rhea");
+
+    // one hour long event at the start of every other hour of the week
+    for (int hour = 0; hour < 7 * 24; hour += 2) {
+      rhea.addEvent(new Event("Event" + hour,
+              "nowhere",
+              true,
+              new Date(Day.values()[hour / 24], String.format("%02d00", hour % 24)),
+              new Date(Day.values()[hour / 24], String.format("%02d59", hour % 24)),
+              new ArrayList<>(List.of("Rhea"))));
+    }
+
+    Event fitsInGap = new Event("Gap",
+            "nowhere",
+            true,
+            new Date(Day.Thursday, "1300"),
+            new Date(Day.Thursday, "1400"),
+            new ArrayList<>(List.of("Rhea")));
+
+    Event overlapsEvent = new Event("Overlap",
+            "nowhere",
+            true,
+            new Date(Day.Thursday, "1330"),
+            new Date(Day.Thursday, "1430"),
+            new ArrayList<>(List.of("Rhea")));
+
+    // starts Saturday night and continues into the following week
+    Event intoNextWeek = new Event("NextWeek",
+            "nowhere",
+            true,
+            new Date(Day.Saturday, "2300"),
+            new Date(Day.Sunday, "0030"),
+            new ArrayList<>(List.of("Rhea")));
+
+    Assert.assertEquals(84, rhea.getEvents().size());
+    Assert.assertFalse(rhea.getSchedule().hasTimeConflict(fitsInGap));
+    Assert.assertTrue(rhea.getSchedule().hasTimeConflict(overlapsEvent));
+    Assert.assertTrue(rhea.getSchedule().hasTimeConflict(intoNextWeek));
+  }
+
+  @Test
+  public void testHasTimeConflictIntoNextWeek() {
+    User rhea = new User("Rhea");
+
+    Event sundayMorning = new Event("Sunday",
+            "nowhere",
+            true,
+            new Date(Day.Sunday, "0000"),
+            new Date(Day.Sunday, "0059"),
+            new ArrayList<>(List.of("Rhea")));
+
+    Event monday = new Event("Monday",
+            "nowhere",
+            true,
+            new Date(Day.Monday, "0400"),
+            new Date(Day.Monday, "2345"),
+            new ArrayList<>(List.of("Rhea")));
+
+    // both continue into the following week, where they run into the events above
+    Event saturdayNight = new Event("SaturdayNight",
+            "nowhere",
+            true,
+            new Date(Day.Saturday, "2300"),
+            new Date(Day.Sunday, "0030"),
+            new ArrayList<>(List.of("Rhea")));
+
+    Event untilMonday = new Event("UntilMonday",
+            "nowhere",
+            true,
+            new Date(Day.Saturday, "0500"),
+            new Date(Day.Monday, "0415"),
+            new ArrayList<>(List.of("Rhea")));
+
+    rhea.addEvent(sundayMorning);
+    rhea.addEvent(monday);
+    Assert.assertTrue(rhea.getSchedule().hasTimeConflict(saturdayNight));
+    Assert.assertTrue(rhea.getSchedule().hasTimeConflict(untilMonday));
+
+    // the same answers once the occupancy bitmap is answering instead of the tree
+    rhea.getSchedule().getOccupancy();
+    Assert.assertTrue(rhea.getSchedule().hasTimeConflict(saturdayNight));
+    Assert.assertTrue(rhea.getSchedule().hasTimeConflict(untilMonday));
+
+    // and the other way around, with the event continuing into next week added first
+    User sam = new User("Sam");
+    sam.addEvent(new Event("UntilMonday",
+            "nowhere",
+            true,
+            new Date(Day.Saturday, "0500"),
+            new Date(Day.Monday, "0415"),
+            new ArrayList<>(List.of("Sam"))));
+
+    Event samMonday = new Event("Monday",
+            "nowhere",
+            true,
+            new Date(Day.Monday, "0400"),
+            new Date(Day.Monday, "2345"),
+            new ArrayList<>(List.of("Sam")));
+
+    Event samLaterMonday = new Event("LaterMonday",
+            "nowhere",
+            true,
+            new Date(Day.Monday, "0415"),
+            new Date(Day.Monday, "2345"),
+            new ArrayList<>(List.of("Sam")));
+
+    Assert.assertTrue(sam.getSchedule().hasTimeConflict(samMonday));
+    Assert.assertFalse(sam.getSchedule().hasTimeConflict(samLaterMonday));
+    Assert.assertTrue(sam.getSchedule().isBusyAt(new Date(Day.Sunday, "1200")));
+    Assert.assertTrue(sam.getSchedule().hasTimeConflict(samMonday));
+    Assert.assertFalse(sam.getSchedule().hasTimeConflict(samLaterMonday));
+  }
 }
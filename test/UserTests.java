@@ -186,4 +186,36 @@ public class UserTests {
     Assert.assertThrows(IllegalArgumentException.class, () -> new User(""));
     Assert.assertThrows(IllegalArgumentException.class, () -> new User(null));
   }
+
+  @Test
+  public void testLazyUserLoadsScheduleOnce() {
+    Event lecture = new Event("Lecture", "Churchill", false,
+            new Date(Day.Tuesday, "0950"),
+            new Date(Day.Tuesday, "1130"),
+            new ArrayList<>(List.of("Alex", "Bob")));
+    int[] loads = new int[1];
+
+    User alex = new User("Alex", () -> {
+      loads[0]++;
+      return List.of(lecture);
+    });
+
+    Assert.assertEquals("Alex", alex.getUserId());
+    Assert.assertEquals(0, loads[0]);
+    Assert.assertSame(lecture, alex.getEvent("Lecture"));
+    Assert.assertEquals(1, alex.getEvents().size());
+    Assert.assertEquals(1, loads[0]);
+
+    // modifying an event held by a user who has not been loaded yet still reaches them
+    User bob = new User("Bob", () -> List.of(lecture));
+    NUPlanner planner = new NUPlanner(List.of(alex, bob));
+    planner.modifyEvent("Lecture", new Event("Lab", "Churchill", false,
+            new Date(Day.Tuesday, "1200"),
+            new Date(Day.Tuesday, "1300"),
+            new ArrayList<>(List.of("Alex"))));
+
+    Assert.assertEquals("Lab", alex.getEvents().get(0).getName());
+    Assert.assertEquals(0, bob.getEvents().size());
+    Assert.assertThrows(IllegalArgumentException.class, () -> new User("Alex", null));
+  }
 }
@@ -0,0 +1,101 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.AnytimeStrategy;
+import controller.NUPlannerController;
+import controller.WriteBehindSaver;
+import model.Date;
+import model.Day;
+import model.Event;
+import model.NUPlanner;
+import model.NUPlannerModel;
+import model.User;
+
+/**
+ * Tests methods in WriteBehindSaver class. Every test builds its own model, so none of them
+ * depend on the XML files the other tests read.
+ */
+public class WriteBehindSaverTests {
+
+  @Test
+  public void testSaverFailsWithInvalidConstructorParams() {
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new WriteBehindSaver(null, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new WriteBehindSaver(new NUPlanner(false), -1));
+  }
+
+  @Test
+  public void testSaverWritesChangedUsersInTheBackground() {
+    NUPlannerModel model = new NUPlanner(false);
+    model.addUser(new User("SaverUser"));
+    StringBuilder stringBuilder = new StringBuilder();
+    FakeView fakeView = new FakeView(stringBuilder);
+    NUPlannerController controller = new NUPlannerController(fakeView,
+            new AnytimeStrategy(model));
+    controller.launch(model);
+    File file = new File("SaverUser.xml");
+
+    // the window is long enough that nothing gets saved until we ask for it
+    try (WriteBehindSaver saver = new WriteBehindSaver(model, 60000)) {
+      controller.setSaver(saver);
+
+      for (String name : List.of("Breakfast", "Lunch", "Dinner")) {
+        String status = controller.scheduleEvent(name, "30", "Cafe",
+                false, new ArrayList<>(List.of("SaverUser")));
+        Assert.assertEquals("success", status);
+      }
+      Assert.assertFalse(file.exists());
+
+      saver.flushAndWait();
+      Assert.assertTrue(file.exists());
+      Assert.assertEquals("Invalid userId.", controller.saveUserToXML("nobody"));
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testSaveWritesUserWhoseScheduleDidNotChange() {
+    NUPlannerModel model = new NUPlanner(false);
+    User user = new User("SavedUser");
+    user.addEvent(new Event("Breakfast", "Stetson East", false,
+            new Date(Day.Monday, "0800"),
+            new Date(Day.Monday, "0900"),
+            new ArrayList<>(List.of("SavedUser"))));
+    model.addUser(user);
+    File file = new File("SavedUser.xml");
+
+    try (WriteBehindSaver saver = new WriteBehindSaver(model, 60000)) {
+      saver.changed();
+      saver.flushAndWait();
+      Assert.assertTrue(file.delete());
+
+      // nothing changed, so only asking for the user brings the file back
+      saver.changed();
+      saver.flushAndWait();
+      Assert.assertFalse(file.exists());
+
+      saver.save("SavedUser");
+      saver.flushAndWait();
+      Assert.assertTrue(file.exists());
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testSaverCannotBeUsedOnceClosed() {
+    WriteBehindSaver saver = new WriteBehindSaver(new NUPlanner(false), 0);
+    saver.close();
+
+    Assert.assertThrows(IllegalStateException.class, saver::changed);
+    Assert.assertThrows(IllegalStateException.class, () -> saver.save("SavedUser"));
+    // there is nothing left to save, so this does nothing
+    saver.flushAndWait();
+  }
+}
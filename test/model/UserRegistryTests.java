@@ -0,0 +1,160 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests methods in UserRegistry class. The registry is package-private, so these tests live
+ * in the model package.
+ */
+public class UserRegistryTests {
+
+  @Test
+  public void testRegisterAndFind() {
+    UserRegistry registry = new UserRegistry();
+    User alex = new User("Alex");
+    User rhea = new User("Rhea");
+
+    registry.register(alex);
+    registry.register(rhea);
+
+    Assert.assertSame(alex, registry.find("Alex"));
+    Assert.assertSame(rhea, registry.find("Rhea"));
+    Assert.assertTrue(registry.contains("Alex"));
+    Assert.assertTrue(registry.contains("Rhea"));
+  }
+
+  @Test
+  public void testFindUnknownUser() {
+    UserRegistry registry = new UserRegistry(List.of(new User("Alex")));
+
+    Assert.assertNull(registry.find("Rhea"));
+    Assert.assertFalse(registry.contains("Rhea"));
+    // userIds are case sensitive
+    Assert.assertNull(registry.find("alex"));
+  }
+
+  @Test
+  public void testUsersKeepTheOrderTheyWereRegisteredIn() {
+    UserRegistry registry = new UserRegistry(List.of(new User("Rhea"), new User("Alex")));
+    List<User> users = registry.asList();
+
+    registry.register(new User("Chat"));
+
+    // the list handed out earlier sees the new user too
+    Assert.assertEquals(3, users.size());
+    Assert.assertEquals("Rhea", users.get(0).getUserId());
+    Assert.assertEquals("Alex", users.get(1).getUserId());
+    Assert.assertEquals("Chat", users.get(2).getUserId());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testUsersCannotBeAddedThroughTheList() {
+    UserRegistry registry = new UserRegistry();
+
+    registry.asList().add(new User("Alex"));
+  }
+
+  @Test
+  public void testRegisterDuplicateUser() {
+    UserRegistry registry = new UserRegistry();
+    User alex = new User("Alex");
+    registry.register(alex);
+
+    try {
+      registry.register(new User("Alex"));
+      Assert.fail("Registering a second user with the same userId should fail.");
+    } catch (IllegalArgumentException ex) {
+      Assert.assertEquals("User already exists in system.", ex.getMessage());
+    }
+
+    // the first user is still the one registered
+    Assert.assertSame(alex, registry.find("Alex"));
+    Assert.assertEquals(1, registry.asList().size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCreateWithDuplicateUsers() {
+    List<User> users = new ArrayList<>(List.of(new User("Alex"), new User("Alex")));
+
+    new UserRegistry(users);
+  }
+
+  @Test
+  public void testHoldersOfDoesNotBuildKnownSchedules() {
+    Event lunch = new Event("Lunch", "Churchill", false,
+            new Date(Day.Tuesday, "1200"),
+            new Date(Day.Tuesday, "1300"),
+            new ArrayList<>(List.of("Alex", "Rhea")));
+    AtomicInteger loads = new AtomicInteger();
+    User alex = new User("Alex", () -> {
+      loads.incrementAndGet();
+      return List.of(lunch);
+    }, List.of(EventKey.of(lunch)));
+    User rhea = new User("Rhea", () -> {
+      loads.incrementAndGet();
+      return List.of(lunch);
+    }, List.of(EventKey.of(lunch)));
+
+    UserRegistry registry = new UserRegistry(List.of(alex, rhea));
+
+    Assert.assertEquals(List.of(alex, rhea), registry.holdersOf(EventKey.of(lunch)));
+    Assert.assertEquals(List.of(), registry.holdersOf(new EventKey("Rhea", "Lunch")));
+    Assert.assertEquals(0, loads.get());
+    Assert.assertFalse(alex.isLoaded());
+
+    // once built, the schedule keeps the index up to date as usual
+    alex.removeEvent("Lunch");
+    Assert.assertEquals(1, loads.get());
+    Assert.assertEquals(List.of(rhea), registry.holdersOf(EventKey.of(lunch)));
+    Assert.assertFalse(rhea.isLoaded());
+  }
+
+  @Test
+  public void testHoldersOfOnlyTriesUnknownSchedulesOnce() {
+    AtomicInteger loads = new AtomicInteger();
+    User broken = new User("Broken", () -> {
+      loads.incrementAndGet();
+      throw new IllegalStateException("Error in parsing the file");
+    });
+    UserRegistry registry = new UserRegistry(List.of(broken));
+    EventKey lunch = new EventKey("Alex", "Lunch");
+
+    // the user whose schedule could not be built does not stand in the way of everyone else
+    Assert.assertEquals(List.of(), registry.holdersOf(lunch));
+    Assert.assertEquals(List.of(), registry.holdersOf(lunch));
+    Assert.assertEquals(1, loads.get());
+    Assert.assertEquals(0, broken.getSchedule().getEvents().size());
+    Assert.assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void testHoldersOfForgetsEventsMissingOnceLoaded() {
+    Event lunch = new Event("Lunch", "Churchill", false,
+            new Date(Day.Tuesday, "1200"),
+            new Date(Day.Tuesday, "1300"),
+            new ArrayList<>(List.of("Alex", "Rhea")));
+    // the file Rhea was uploaded from no longer holds the lunch
+    User rhea = new User("Rhea", List::of, List.of(EventKey.of(lunch)));
+    UserRegistry registry = new UserRegistry(List.of(rhea));
+
+    Assert.assertEquals(List.of(rhea), registry.holdersOf(EventKey.of(lunch)));
+    Assert.assertNull(rhea.getEvent("Lunch"));
+    Assert.assertEquals(List.of(), registry.holdersOf(EventKey.of(lunch)));
+  }
+
+  @Test
+  public void testPlannerCopiesTheGivenUsers() {
+    List<User> users = new ArrayList<>(List.of(new User("Alex")));
+    NUPlanner planner = new NUPlanner(users);
+
+    users.add(new User("Rhea"));
+
+    Assert.assertEquals(1, planner.getUsers().size());
+    Assert.assertSame(users.get(0), planner.getUser("Alex"));
+  }
+}